@@ -0,0 +1,24 @@
+-- Migration: indexed member search
+-- Adds digits-only phone columns (forward and reversed) and a name index, so
+-- phone / name searches are index prefix lookups instead of full table scans.
+-- The application only checks for these columns (database/MemberSchema.java) and keeps
+-- the slower queries until this has been run. Running it again fails on the existing columns.
+
+USE kkkDB;
+
+ALTER TABLE members
+    ADD COLUMN phone_digits VARCHAR(32) AS (
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(phone_number, '-', ''), ' ', ''), '.', ''), '(', ''), ')', ''), '+', '')
+    ) STORED,
+    ADD COLUMN phone_digits_rev VARCHAR(32) AS (REVERSE(phone_digits)) STORED,
+    ADD INDEX idx_members_phone_digits (phone_digits),
+    ADD INDEX idx_members_phone_digits_rev (phone_digits_rev);
+
+CREATE INDEX idx_members_name ON members (name);
+
+-- Member table pages (keyset on total_spent DESC, phone_number)
+CREATE INDEX idx_members_spent ON members (total_spent DESC, phone_number);
+
+-- Verify
+SHOW INDEX FROM members;
+SELECT phone_number, phone_digits, phone_digits_rev, name FROM members LIMIT 10;
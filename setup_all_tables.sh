@@ -28,6 +28,16 @@ else
     echo " Error loading sample members (table may already exist)"
 fi
 
+echo ""
+echo "Adding member search indexes..."
+mysql -u root -p"$MYSQL_PASSWORD" < migrate_members_search.sql
+
+if [ $? -eq 0 ]; then
+    echo "Member search indexes added successfully!"
+else
+    echo " Error adding member search indexes (they may already exist)"
+fi
+
 echo ""
 echo "Verifying database setup..."
 mysql -u root -p"$MYSQL_PASSWORD" < verify_database.sql
@@ -6,7 +6,10 @@ import model.MenuItem;
 import model.SalesData;
 import view.MainView;
 import view.LoginDialog;
+import database.DatabaseManager;
 import database.MenuItemDAO;
+import database.SalesPersistenceQueue;
+import util.ExportService;
 import javax.swing.*;
 import java.util.List;
 
@@ -14,6 +17,9 @@ import java.util.List;
  * Main application entry point for the Cafe POS System
  */
 public class POSApplication {
+    private static final long SHUTDOWN_FLUSH_MILLIS = 10000;
+    private static final long EXPORT_STOP_MILLIS = 2000;
+    
     private MainView mainView;
     private MenuManager menuManager;
     private SalesData salesData;    
@@ -57,8 +63,14 @@ public class POSApplication {
         // Setup tab change listener
         setupTabChangeListener();
         
+        // Flush queued sales before the JVM exits
+        setupShutdownHook();
+        
         // Show the main window
         mainView.setVisible(true);
+        
+        // Restore past sales without holding up the first order
+        salesController.loadSalesHistory();
     }
     
     private void loadMenuFromDatabase() {
@@ -67,7 +79,7 @@ public class POSApplication {
             List<MenuItem> dbItems = menuItemDAO.getAllMenuItems();
             
             if (!dbItems.isEmpty()) {
-                menuManager.getAllMenuItems().clear();
+                menuManager.clear();
                 for (MenuItem item : dbItems) {
                     menuManager.addMenuItem(item);
                 }
@@ -98,6 +110,14 @@ public class POSApplication {
         });
     }
     
+    private void setupShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            SalesPersistenceQueue.getInstance().shutdown(SHUTDOWN_FLUSH_MILLIS);
+            ExportService.getInstance().shutdown(EXPORT_STOP_MILLIS); // running export removes its partial file
+            DatabaseManager.getInstance().closeConnection();
+        }, "pos-shutdown"));
+    }
+    
     public static void main(String[] args) {
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
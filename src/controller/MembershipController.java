@@ -1,13 +1,19 @@
 package controller;
 
 import model.Member;
+import model.MemberSearchIndex;
 import database.MemberDAO;
 import java.util.List;
 
 /**
  * Controller for Membership business logic
+ * - Searches are answered from an in-memory MemberSearchIndex shared by all controllers;
+ *   it is (re)built from getAllMembers() or reloadSearchIndex() and kept current by
+ *   add / update / delete / payment. Until it is loaded, searches go to the database.
  */
 public class MembershipController {
+    private static final MemberSearchIndex searchIndex = new MemberSearchIndex();
+    
     private MemberDAO memberDAO;
     
     public MembershipController() {
@@ -30,7 +36,11 @@ public class MembershipController {
         }
         
         Member member = new Member(phoneNumber.trim(), name.trim(), totalSpent);
-        return memberDAO.insertMember(member);
+        if (!memberDAO.insertMember(member)) {
+            return false;
+        }
+        searchIndex.put(member);
+        return true;
     }
     
     public Member getMemberByPhone(String phoneNumber) {
@@ -41,14 +51,47 @@ public class MembershipController {
     }
     
     public List<Member> getAllMembers() {
-        return memberDAO.getAllMembers();
+        List<Member> members = memberDAO.getAllMembers();
+        searchIndex.rebuild(members);
+        return members;
+    }
+    
+    /**
+     * One page of members in table order (see MemberDAO.getMembersPage)
+     */
+    public List<Member> getMembersPage(Member after, int pageSize) {
+        return memberDAO.getMembersPage(after, pageSize);
+    }
+    
+    /**
+     * Rebuild the search index from the database in the background
+     */
+    public void reloadSearchIndex() {
+        Thread loader = new Thread(() -> searchIndex.rebuild(memberDAO.getAllMembers()), "member-index");
+        loader.setDaemon(true);
+        loader.start();
     }
     
+    /**
+     * Members matching the term (name starts with it, or phone contains its digits),
+     * highest total spent first; an empty term returns every member
+     */
     public List<Member> searchMembers(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return getAllMembers();
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        if (!searchIndex.isLoaded()) {
+            return term.isEmpty() ? getAllMembers() : memberDAO.searchMembers(term);
         }
-        return memberDAO.searchMembers(searchTerm.trim());
+        return searchIndex.search(term);
+    }
+    
+    /**
+     * Narrow an earlier search result to a longer term that starts with the earlier one
+     */
+    public List<Member> refineSearch(List<Member> previousResults, String searchTerm) {
+        if (!searchIndex.isLoaded()) {
+            return searchMembers(searchTerm);
+        }
+        return searchIndex.refine(previousResults, searchTerm.trim());
     }
     
     public boolean updateMember(String oldPhoneNumber, String newPhoneNumber, String name, double totalSpent) {
@@ -65,28 +108,50 @@ public class MembershipController {
             }
             
             memberDAO.deleteMember(oldPhoneNumber);
+            searchIndex.remove(oldPhoneNumber);
             Member newMember = new Member(newPhoneNumber, name, totalSpent);
-            return memberDAO.insertMember(newMember);
+            if (!memberDAO.insertMember(newMember)) {
+                return false;
+            }
+            searchIndex.put(newMember);
+            return true;
         } else {
             member.setName(name);
             member.setTotalSpent(totalSpent);
-            return memberDAO.updateMember(member);
+            if (!memberDAO.updateMember(member)) {
+                return false;
+            }
+            searchIndex.put(member);
+            return true;
         }
     }
     
     public boolean deleteMember(String phoneNumber) {
-        return memberDAO.deleteMember(phoneNumber);
+        if (!memberDAO.deleteMember(phoneNumber)) {
+            return false;
+        }
+        searchIndex.remove(phoneNumber);
+        return true;
     }
     
     public boolean applyPaymentToMember(String phoneNumber, double finalAmount) {
-        Member member = getMemberByPhone(phoneNumber);
-        
-        if (member == null) {
+        if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
             return false;
         }
-        
-        member.addSpending(finalAmount);
-        return memberDAO.updateMember(member);
+        // Added in the database, so payments at other registers are not overwritten;
+        // the new total is read back when the member is reloaded (reloadMember)
+        return memberDAO.addSpending(phoneNumber.trim(), finalAmount);
+    }
+    
+    /**
+     * Read a member again from the database (e.g. after a payment) and re-index it
+     */
+    public Member reloadMember(String phoneNumber) {
+        Member member = getMemberByPhone(phoneNumber);
+        if (member != null) {
+            searchIndex.put(member);
+        }
+        return member;
     }
     
     public int getTotalMemberCount() {
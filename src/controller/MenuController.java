@@ -33,7 +33,7 @@ public class MenuController {
         try {
             List<MenuItem> dbItems = menuItemDAO.getAllMenuItems();
             if (!dbItems.isEmpty()) {
-                menuManager.getAllMenuItems().clear();
+                menuManager.clear();
                 for (MenuItem item : dbItems) {
                     item.setAvailable(true);
                     menuManager.addMenuItem(item);
@@ -159,6 +159,7 @@ public class MenuController {
             item.setPrice(price);
             item.setDescription(description);
             item.setImagePath(imagePath); // [Logic] 업데이트
+            menuManager.updateMenuItem(item); // 카테고리/이름 인덱스 갱신
 
             menuItemDAO.updateMenuItem(item);
 
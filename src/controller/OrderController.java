@@ -6,7 +6,7 @@ import view.OrderCustomizationDialog;
 import view.PaymentDialog;
 import util.LanguageManager;
 import database.OrderDAO;
-import database.PaymentDAO;
+import database.SalesPersistenceQueue;
 
 import javax.swing.*;
 import java.awt.*;
@@ -21,19 +21,19 @@ public class OrderController {
     private OrderView view;
     private view.MembershipView membershipView;
     private int orderCounter;
+    private LocalDate orderCounterDate; // day orderCounter was seeded for
     private LanguageManager langManager;
     private OrderDAO orderDAO;
-    private PaymentDAO paymentDAO;
+    private SalesPersistenceQueue persistenceQueue;
     
     public OrderController(MenuManager menuManager, SalesData salesData, OrderView view, view.MembershipView membershipView) {
         this.menuManager = menuManager;
         this.salesData = salesData;
         this.view = view;
         this.membershipView = membershipView;
-        this.orderCounter = 1;
         this.langManager = LanguageManager.getInstance();
         this.orderDAO = new OrderDAO();
-        this.paymentDAO = new PaymentDAO();
+        this.persistenceQueue = SalesPersistenceQueue.getInstance();
         
         createNewOrder();
         initializeListeners();
@@ -51,53 +51,63 @@ public class OrderController {
     private void createNewOrder() {
         LocalDate now = LocalDate.now();
         String dateStr = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String orderId = String.format("%s%04d", dateStr, orderCounter++);
+        if (!now.equals(orderCounterDate)) {
+            // 시작할 때와 날짜가 바뀔 때: 오늘 이미 사용된 번호 다음부터
+            orderCounterDate = now;
+            orderCounter = nextOrderNumber(dateStr);
+        }
+        String orderId;
+        do {
+            orderId = String.format("%s%04d", dateStr, orderCounter++);
+        } while (salesData.getOrder(orderId) != null);
         currentOrder = new Order(orderId);
     }
     
+    /**
+     * First order number for the day that is not used by a stored sale
+     * or by one still waiting to be saved
+     */
+    private int nextOrderNumber(String dateStr) {
+        int last = orderSequence(orderDAO.getLastOrderId(dateStr), dateStr);
+        for (String pendingId : persistenceQueue.getPendingOrderIds()) {
+            last = Math.max(last, orderSequence(pendingId, dateStr));
+        }
+        return last + 1;
+    }
+    
+    // The number after the date in an order ID, 0 if the ID is not from that day
+    private static int orderSequence(String orderId, String dateStr) {
+        if (orderId == null || !orderId.startsWith(dateStr)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(orderId.substring(dateStr.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
     private void initializeListeners() {
-        view.getCategoryFilter().addActionListener(e -> refreshMenuDisplay());
+        view.getCategoryFilter().addActionListener(e -> applyCategoryFilter());
+        view.setMenuItemListener(this::handleBuyButtonClick);
         view.getApplyDiscountButton().addActionListener(e -> handleApplyDiscount());
         view.getClearButton().addActionListener(e -> handleClearOrder());
         view.getPayButton().addActionListener(e -> handlePayment());
     }
     
+    // 메뉴 내용이 바뀌었을 때 (시작, 언어 변경, 메뉴 편집): 보이는 카드만 다시 연결
     private void refreshMenuDisplay() {
+        applyCategoryFilter();
+    }
+    
+    // 카테고리 변경: MenuManager의 카테고리 인덱스에서 바로 가져옴 (전체 메뉴를 훑지 않음)
+    private void applyCategoryFilter() {
         String selectedCategory = (String) view.getCategoryFilter().getSelectedItem();
         if (selectedCategory == null) return;
-        List<model.MenuItem> items;
         if (langManager.getText("all").equals(selectedCategory) || "All".equals(selectedCategory)) {
-            items = menuManager.getAllMenuItems();
+            view.displayMenuItems(menuManager.getAllMenuItems());
         } else {
-            String categoryKey = langManager.getCategoryKey(selectedCategory);
-            items = menuManager.getMenuItemsByCategory(categoryKey);
-        }
-        view.displayMenuItems(items);
-        attachMenuCardListeners();
-    }
-    
-    private void attachMenuCardListeners() {
-        JPanel menuPanel = view.getMenuPanel();
-        for (Component card : menuPanel.getComponents()) {
-            if (card instanceof JPanel) attachButtonListener((JPanel) card);
-        }
-    }
-    
-    private void attachButtonListener(JPanel card) {
-        for (Component comp : card.getComponents()) {
-            if (comp instanceof JPanel) {
-                for (Component inner : ((JPanel) comp).getComponents()) {
-                    if (inner instanceof JButton) {
-                        JButton btn = (JButton) inner;
-                        for (java.awt.event.ActionListener al : btn.getActionListeners()) btn.removeActionListener(al);
-                        btn.addActionListener(e -> {
-                            model.MenuItem item = (model.MenuItem) btn.getClientProperty("menuItem");
-                            String action = (String) btn.getClientProperty("action");
-                            if ("buy".equals(action)) handleBuyButtonClick(item);
-                        });
-                    }
-                }
-            }
+            view.displayMenuItems(menuManager.getMenuItemsByCategory(langManager.getCategoryKey(selectedCategory)));
         }
     }
     
@@ -161,7 +171,7 @@ public class OrderController {
                 }
                 
                 // Process payment
-                String paymentId = String.format("PAY%04d", orderCounter);
+                String paymentId = "PAY" + currentOrder.getOrderId();
                 Payment.PaymentMethod method = paymentDialog.isCashPayment() ? 
                     Payment.PaymentMethod.CASH : Payment.PaymentMethod.CARD;
                 
@@ -181,10 +191,10 @@ public class OrderController {
                     if (updated) {
                         System.out.println("✅ Membership updated: " + currentMember.getName());
                         
-                        // Refresh membership view to show updated total spent
+                        // Refresh the member's row to show updated total spent
                         if (membershipView != null) {
                             try {
-                                membershipView.loadMembers();
+                                membershipView.refreshMember(currentMember.getPhoneNumber());
                                 System.out.println("✅ Membership view refreshed");
                             } catch (Exception ex) {
                                 System.err.println("⚠️ Failed to refresh membership view: " + ex.getMessage());
@@ -198,8 +208,10 @@ public class OrderController {
                 // Record sale
                 currentOrder.setStatus("Completed");
                 salesData.recordSale(payment, currentOrder);
-                orderDAO.insertOrder(currentOrder);
-                paymentDAO.insertPayment(payment);
+                // Persist in the background; write synchronously only if the queue is backed up
+                if (!persistenceQueue.submit(currentOrder, payment)) {
+                    orderDAO.insertOrderWithPayment(currentOrder, payment);
+                }
                 
                 // [수정] 결제 완료 팝업 내용 개선 (받은 금액, 거스름돈 추가)
                 StringBuilder msg = new StringBuilder();
@@ -6,7 +6,11 @@ import model.Payment;
 import model.SalesData;
 import view.SalesView;
 import util.LanguageManager;
-import util.CSVExporter;
+import util.CSVImporter;
+import util.ExportService;
+import database.SalesPersistenceQueue;
+import database.SalesHistoryLoader;
+import javax.swing.SwingUtilities;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
 import javax.swing.JTextArea;
@@ -24,12 +28,18 @@ public class SalesController {
     private SalesView view;
     private DateTimeFormatter timeFormatter;
     private LanguageManager langManager;
+    private SalesPersistenceQueue persistenceQueue;
+    private ExportService exportService;
+    private List<ExportService.ExportTask> pendingExports; // EDT only, oldest first
     
     public SalesController(SalesData salesData, SalesView view) {
         this.salesData = salesData;
         this.view = view;
         this.timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
         this.langManager = LanguageManager.getInstance();
+        this.persistenceQueue = SalesPersistenceQueue.getInstance();
+        this.exportService = ExportService.getInstance();
+        this.pendingExports = new ArrayList<>();
         
         refreshStatistics();
         setupActionListeners();
@@ -45,6 +55,8 @@ public class SalesController {
         view.getSearchButton().addActionListener(e -> handleSearch());
         view.getPrintReceiptButton().addActionListener(e -> handlePrintReceipt());
         view.getCancelOrderButton().addActionListener(e -> handleCancelOrder());
+        view.getCancelExportButton().addActionListener(e -> handleCancelExport());
+        view.getImportCSVButton().addActionListener(e -> handleImportSales());
     }
     
     private void handleSearch() {
@@ -89,6 +101,8 @@ public class SalesController {
         if (confirm == JOptionPane.YES_OPTION) {
             boolean success = salesData.cancelOrder(orderId);
             if (success) {
+                // DB에도 취소 상태 저장 (매출이 저장된 뒤에 반영, 재시작 후 매출 기록 복원 시 사용)
+                persistenceQueue.submitStatusUpdate(orderId, "Cancelled");
                 JOptionPane.showMessageDialog(view, 
                     langManager.getText("msg_order_cancelled"), 
                     langManager.getText("title_notice"), 
@@ -195,10 +209,108 @@ public class SalesController {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setSelectedFile(new File("sales_" + LocalDate.now() + ".csv"));
         if (fileChooser.showSaveDialog(view) == JFileChooser.APPROVE_OPTION) {
-            CSVExporter.exportSalesToCSV(fileChooser.getSelectedFile().getAbsolutePath(), LocalDate.now().minusDays(30), LocalDate.now());
+            // 백그라운드에서 내보내기 (여러 건은 순서대로 대기)
+            ExportService.ExportTask task = exportService.exportSales(
+                fileChooser.getSelectedFile().getAbsolutePath(), LocalDate.now().minusDays(30), LocalDate.now(),
+                new ExportService.ExportListener() {
+                    @Override
+                    public void onStarted(ExportService.ExportTask task) {
+                        SwingUtilities.invokeLater(() -> showExportStatus(task));
+                    }
+                    
+                    @Override
+                    public void onProgress(ExportService.ExportTask task, int rowsWritten) {
+                        SwingUtilities.invokeLater(() -> showExportStatus(task));
+                    }
+                    
+                    @Override
+                    public void onFinished(ExportService.ExportTask task, ExportService.Result result) {
+                        SwingUtilities.invokeLater(() -> finishExport(task, result));
+                    }
+                });
+            pendingExports.add(task);
+            view.setExportRunning(true);
+            showExportStatus(pendingExports.get(0));
         }
     }
     
+    // 가장 오래된 (실행 중인) 내보내기 취소
+    private void handleCancelExport() {
+        if (!pendingExports.isEmpty()) {
+            pendingExports.get(0).cancel();
+        }
+    }
+    
+    private void showExportStatus(ExportService.ExportTask task) {
+        if (pendingExports.isEmpty() || pendingExports.get(0) != task) return;
+        String text = langManager.getText("status_exporting") + " " + task.getRowsWritten();
+        if (pendingExports.size() > 1) {
+            text += " (" + langManager.getText("status_export_queued") + " " + (pendingExports.size() - 1) + ")";
+        }
+        view.setStatusText(text);
+    }
+    
+    private void finishExport(ExportService.ExportTask task, ExportService.Result result) {
+        pendingExports.remove(task);
+        if (result == ExportService.Result.DONE) {
+            view.setStatusText(langManager.getText("status_export_done") + " " + task.getRowsWritten());
+        } else if (result == ExportService.Result.CANCELLED) {
+            view.setStatusText(langManager.getText("status_export_cancelled"));
+        } else {
+            view.setStatusText(langManager.getText("status_export_failed"));
+        }
+        view.setExportRunning(!pendingExports.isEmpty());
+    }
+    
+    // 과거 매출 CSV / .ksa 아카이브 가져오기 (DB 저장 + SalesData 반영, 백그라운드 실행)
+    private void handleImportSales() {
+        JFileChooser fileChooser = new JFileChooser();
+        if (fileChooser.showOpenDialog(view) != JFileChooser.APPROVE_OPTION) return;
+        
+        String filePath = fileChooser.getSelectedFile().getAbsolutePath();
+        view.getImportCSVButton().setEnabled(false);
+        view.setStatusText(langManager.getText("status_importing") + " 0");
+        
+        Thread thread = new Thread(() -> {
+            int[] saved = {0};
+            int imported = CSVImporter.importSalesFromCSV(filePath, salesData, rows -> {
+                saved[0] = rows;
+                SwingUtilities.invokeLater(() -> view.setStatusText(langManager.getText("status_importing") + " " + rows));
+            });
+            SwingUtilities.invokeLater(() -> {
+                view.setStatusText(imported >= 0
+                    ? langManager.getText("status_import_done") + " " + imported
+                    : langManager.getText("status_import_failed") + " " + saved[0]);
+                view.getImportCSVButton().setEnabled(true);
+                refreshStatistics();
+            });
+        }, "csv-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Load past sales from the database in the background, showing progress in the view
+     */
+    public void loadSalesHistory() {
+        view.setStatusText(langManager.getText("status_loading_history"));
+        new SalesHistoryLoader(salesData).loadInBackground(new SalesHistoryLoader.ProgressListener() {
+            @Override
+            public void onProgress(int loaded) {
+                SwingUtilities.invokeLater(() ->
+                    view.setStatusText(langManager.getText("status_loading_history") + " " + loaded));
+            }
+            
+            @Override
+            public void onComplete(int total) {
+                SwingUtilities.invokeLater(() -> {
+                    view.setStatusText(langManager.getText("status_history_loaded") + " " + total);
+                    refreshStatistics();
+                });
+            }
+        });
+    }
+    
     public void refreshStatistics() {
         LocalDate today = LocalDate.now();
         double monthlyRevenue = salesData.getMonthlyRevenue(today.getYear(), today.getMonthValue());
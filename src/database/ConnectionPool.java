@@ -0,0 +1,377 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool
+ * - Connections handed out are proxies; close() returns them to the pool
+ * - Idle connections are validated before reuse
+ * - Borrowers wait at most borrowTimeoutMillis for a free connection
+ * - While the database is unreachable, new connections are attempted at most once per
+ *   backoff interval (doubling up to MAX_CONNECT_BACKOFF_MILLIS); other borrows fail fast.
+ *   Reconnect listeners run once a connection succeeds again.
+ */
+public class ConnectionPool {
+    private static final long INITIAL_CONNECT_BACKOFF_MILLIS = 1000;
+    private static final long MAX_CONNECT_BACKOFF_MILLIS = 30000;
+
+    private final String url;
+    private final Properties props;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int validationTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledEntry> idle = new ArrayDeque<>();
+    private int totalCount;   // open connections (idle + active + being created)
+    private int activeCount;  // connections currently lent out
+    private int waitingCount; // threads blocked in borrow()
+    private boolean closed;
+    private long connectBackoffMillis; // 0 while connecting works
+    private long nextConnectAt;        // no new connection attempt before this time
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+
+    public ConnectionPool(String url, Properties props, int maxSize,
+                          long borrowTimeoutMillis, long validationIntervalMillis, int validationTimeoutSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.url = url;
+        this.props = props;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * Borrow a connection, opening a new one if the pool is not yet full.
+     * Throws SQLTimeoutException if none becomes free within the borrow timeout, or
+     * SQLException right away if the database is unreachable and still backing off.
+     */
+    public Connection borrow() throws SQLException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PooledEntry entry;
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry != null || totalCount < maxSize) {
+                        break;
+                    }
+                    if (remaining <= 0L) {
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                            + "ms waiting for a database connection (" + maxSize + " in use)");
+                    }
+                    waitingCount++;
+                    try {
+                        remaining = available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waitingCount--;
+                    }
+                }
+                if (entry == null) {
+                    long wait = nextConnectAt - System.currentTimeMillis();
+                    if (connectBackoffMillis > 0 && wait > 0) {
+                        throw new SQLException("Database unreachable, next connection attempt in " + wait + "ms");
+                    }
+                    totalCount++; // reserve a slot, connect outside the lock
+                }
+                activeCount++;
+            } finally {
+                lock.unlock();
+            }
+
+            if (entry == null) {
+                Connection raw;
+                try {
+                    raw = DriverManager.getConnection(url, props);
+                } catch (SQLException e) {
+                    releaseSlot();
+                    connectFailed();
+                    throw e;
+                }
+                connectSucceeded();
+                return new PooledEntry(raw).lend();
+            }
+
+            // Validate connections that have been idle for a while (MySQL drops them after wait_timeout)
+            if (isUsable(entry)) {
+                return entry.lend();
+            }
+            closeQuietly(entry.raw);
+            releaseSlot();
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.raw.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - entry.lastUsed < validationIntervalMillis) {
+                return true;
+            }
+            return entry.raw.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void giveBack(PooledEntry entry) {
+        boolean reusable;
+        try {
+            // Never let one caller's transaction state leak into the next borrower
+            if (!entry.raw.isClosed() && !entry.raw.getAutoCommit()) {
+                entry.raw.rollback();
+                entry.raw.setAutoCommit(true);
+            }
+            reusable = !entry.raw.isClosed();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            activeCount--;
+            if (reusable && !closed) {
+                entry.lastUsed = System.currentTimeMillis();
+                idle.addFirst(entry);
+                available.signal();
+                return;
+            }
+            totalCount--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(entry.raw);
+    }
+
+    private void connectFailed() {
+        lock.lock();
+        try {
+            connectBackoffMillis = connectBackoffMillis == 0 ? INITIAL_CONNECT_BACKOFF_MILLIS
+                : Math.min(connectBackoffMillis * 2, MAX_CONNECT_BACKOFF_MILLIS);
+            nextConnectAt = System.currentTimeMillis() + connectBackoffMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void connectSucceeded() {
+        boolean recovered;
+        lock.lock();
+        try {
+            recovered = connectBackoffMillis > 0;
+            connectBackoffMillis = 0;
+        } finally {
+            lock.unlock();
+        }
+        if (recovered) {
+            System.out.println("✅ Database connection restored");
+            for (Runnable listener : reconnectListeners) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * Run listener (on the borrowing thread) whenever a connection succeeds after failures
+     */
+    public void addReconnectListener(Runnable listener) {
+        reconnectListeners.add(listener);
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            activeCount--;
+            totalCount--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close idle connections and refuse further borrows.
+     * Connections still lent out are closed when they are returned.
+     */
+    public void close() {
+        Deque<PooledEntry> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            totalCount -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledEntry entry : toClose) {
+            closeQuietly(entry.raw);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Already broken - nothing to do
+        }
+    }
+
+    // Metrics
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return activeCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaitingCount() {
+        lock.lock();
+        try {
+            return waitingCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return totalCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "ConnectionPool[active=" + activeCount + ", idle=" + idle.size()
+                + ", waiting=" + waitingCount + ", max=" + maxSize + "]";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private final class PooledEntry {
+        private final Connection raw;
+        private long lastUsed;
+
+        PooledEntry(Connection raw) {
+            this.raw = raw;
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        Connection lend() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * One borrow of a pooled connection; close() hands it back exactly once
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if ("close".equals(name)) {
+                if (!returned) {
+                    returned = true;
+                    giveBack(entry);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return returned || entry.raw.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "Pooled" + entry.raw;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            try {
+                return method.invoke(entry.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -5,20 +5,30 @@ import java.util.Properties;
 
 /**
  * Database connection manager for MySQL
+ * - Hands out connections from a bounded pool; callers must close() them to return them
+ * - If MySQL is down (also at startup) getConnection() returns null and the pool keeps
+ *   reconnecting with backoff, so the application comes back online by itself
  */
 public class DatabaseManager {
     private static final String DB_URL = "jdbc:mysql://localhost:3306/kkkdb";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "q1w2e3r4!";
-    
+
+    // Pool settings
+    private static final int POOL_MAX_SIZE = 8;
+    private static final long BORROW_TIMEOUT_MILLIS = 5000;
+    private static final long VALIDATION_INTERVAL_MILLIS = 30000; // idle time before a connection is re-validated
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final String CONNECT_TIMEOUT_MILLIS = "5000";
+
     private static DatabaseManager instance;
-    private Connection connection;
-    
+    private ConnectionPool pool;
+
     private DatabaseManager() {
         try {
             // Load MySQL JDBC Driver
             Class.forName("com.mysql.cj.jdbc.Driver");
-            
+
             // Connection properties
             Properties props = new Properties();
             props.setProperty("user", DB_USER);
@@ -26,75 +36,84 @@ public class DatabaseManager {
             props.setProperty("useSSL", "false");
             props.setProperty("serverTimezone", "UTC");
             props.setProperty("allowPublicKeyRetrieval", "true");
-            
-            // Establish connection
-            connection = DriverManager.getConnection(DB_URL, props);
+            props.setProperty("connectTimeout", CONNECT_TIMEOUT_MILLIS);
+            props.setProperty("rewriteBatchedStatements", "true"); // JDBC batches become multi-row INSERTs
+            props.setProperty("useCursorFetch", "true"); // setFetchSize() streams through a server-side cursor
+
+            pool = new ConnectionPool(DB_URL, props, POOL_MAX_SIZE,
+                BORROW_TIMEOUT_MILLIS, VALIDATION_INTERVAL_MILLIS, VALIDATION_TIMEOUT_SECONDS);
+
+            // Open the first connection eagerly so startup reports the database status
+            pool.borrow().close();
             System.out.println("✅ Database connected successfully!");
-            
+
         } catch (ClassNotFoundException e) {
             System.err.println("❌ MySQL JDBC Driver not found!");
             System.err.println("⚠️ Application will run without database support");
-            connection = null;
+            pool = null;
         } catch (SQLException e) {
             System.err.println("❌ Database connection failed!");
-            System.err.println("⚠️ Application will run without database support");
+            System.err.println("⚠️ Application will run without database until MySQL is reachable (reconnects with backoff)");
             System.err.println("Error: " + e.getMessage());
-            connection = null;
+            // Keep the pool: later borrows reconnect, throttled by the pool's backoff
         }
     }
-    
+
     public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
             instance = new DatabaseManager();
         }
         return instance;
     }
-    
+
+    /**
+     * Borrow a pooled connection, or null if the database is unavailable.
+     * The caller owns the connection and must close() it to return it to the pool.
+     */
     public Connection getConnection() {
+        if (pool == null) {
+            return null;
+        }
         try {
-            // Check if connection is closed or invalid
-            if (connection == null || connection.isClosed()) {
-                System.out.println("⚠️ Connection lost, attempting to reconnect...");
-                
-                // Reconnect with proper properties
-                Properties props = new Properties();
-                props.setProperty("user", DB_USER);
-                props.setProperty("password", DB_PASSWORD);
-                props.setProperty("useSSL", "false");
-                props.setProperty("serverTimezone", "UTC");
-                props.setProperty("allowPublicKeyRetrieval", "true");
-                
-                connection = DriverManager.getConnection(DB_URL, props);
-                System.out.println("✅ Reconnected to database successfully!");
-            }
+            return pool.borrow();
         } catch (SQLException e) {
-            System.err.println("❌ Failed to reconnect to database: " + e.getMessage());
-            e.printStackTrace();
-            connection = null;
+            System.err.println("❌ Failed to get database connection: " + e.getMessage());
+            return null;
         }
-        return connection;
     }
-    
+
+    /**
+     * Run listener whenever the database becomes reachable again after an outage
+     */
+    public void addReconnectListener(Runnable listener) {
+        if (pool != null) {
+            pool.addReconnectListener(listener);
+        }
+    }
+
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
+            System.out.println("Database connection pool closed.");
         }
     }
-    
+
     /**
      * Test database connection
      */
     public boolean testConnection() {
-        try {
-            return connection != null && !connection.isClosed();
+        try (Connection connection = getConnection()) {
+            return connection != null && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
         } catch (SQLException e) {
             return false;
         }
     }
+
+    /**
+     * Pool metrics (active / idle / waiting connections), or null without database support
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
 }
 
@@ -0,0 +1,125 @@
+package database;
+
+import model.Member;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of members by phone number, shared by every MemberDAO
+ * - Keys are the digits of the phone number, so "010-1234-5678" and "01012345678"
+ *   find the same entry
+ * - Entries expire after TTL_MILLIS, so changes made by another register are picked up;
+ *   the least recently used entries are dropped once MAX_ENTRIES is reached
+ * - Members are kept as snapshots and every get() returns a new copy, so callers
+ *   can modify what they receive without touching the cache
+ * - put() takes the stamp from loadStamp() taken before the row was read; if the member
+ *   was invalidated after that, the (possibly stale) row is not cached. Invalidations are
+ *   stamped per hash stripe, so a collision only means a value is not cached
+ */
+class MemberCache {
+    private static final int MAX_ENTRIES = 2000;
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int STAMP_STRIPES = 1024; // power of two
+
+    private static MemberCache instance;
+
+    private final Map<String, CachedMember> cache; // access-ordered LRU, guarded by this
+    private final long[] invalidatedAt = new long[STAMP_STRIPES]; // generation of the last invalidation, guarded by this
+    private long generation; // guarded by this
+
+    private MemberCache() {
+        this.cache = new LinkedHashMap<String, CachedMember>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMember> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    static synchronized MemberCache getInstance() {
+        if (instance == null) {
+            instance = new MemberCache();
+        }
+        return instance;
+    }
+
+    /**
+     * A copy of the cached member, or null if it is not cached or has expired
+     */
+    Member get(String phoneNumber) {
+        String key = Member.normalizePhone(phoneNumber);
+        if (key.isEmpty()) {
+            return null;
+        }
+        CachedMember entry;
+        synchronized (this) {
+            entry = cache.get(key);
+            if (entry != null && entry.expiresAt - System.currentTimeMillis() <= 0) {
+                cache.remove(key);
+                entry = null;
+            }
+        }
+        return entry != null ? new Member(entry.phoneNumber, entry.name, entry.totalSpent) : null;
+    }
+
+    /**
+     * Take before reading (or writing) a member in the database, then pass to put()
+     */
+    synchronized long loadStamp() {
+        return generation;
+    }
+
+    /**
+     * Cache (or refresh) a member as it is stored in the database. Dropped if the member
+     * was invalidated after loadStamp was taken, since the row may predate that change.
+     */
+    void put(Member member, long loadStamp) {
+        String key = Member.normalizePhone(member.getPhoneNumber());
+        if (key.isEmpty()) {
+            return;
+        }
+        CachedMember entry = new CachedMember(member.getPhoneNumber(), member.getName(), member.getTotalSpent(),
+            System.currentTimeMillis() + TTL_MILLIS);
+        synchronized (this) {
+            if (invalidatedAt[stripe(key)] > loadStamp) {
+                return;
+            }
+            cache.put(key, entry);
+        }
+    }
+
+    synchronized void invalidate(String phoneNumber) {
+        String key = Member.normalizePhone(phoneNumber);
+        invalidatedAt[stripe(key)] = ++generation;
+        cache.remove(key);
+    }
+
+    synchronized void clear() {
+        Arrays.fill(invalidatedAt, ++generation);
+        cache.clear();
+    }
+
+    private static int stripe(String key) {
+        return key.hashCode() & (STAMP_STRIPES - 1);
+    }
+
+    synchronized int size() {
+        return cache.size();
+    }
+
+    private static class CachedMember {
+        private final String phoneNumber;
+        private final String name;
+        private final double totalSpent;
+        private final long expiresAt;
+
+        CachedMember(String phoneNumber, String name, double totalSpent, long expiresAt) {
+            this.phoneNumber = phoneNumber;
+            this.name = name;
+            this.totalSpent = totalSpent;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -7,8 +7,15 @@ import java.util.List;
 
 /**
  * Data Access Object for Member
+ * - Phone lookups are served from MemberCache when possible; inserts, updates and
+ *   deletes keep the cache in step with the database
  */
 public class MemberDAO {
+    // phone_number without separators, the phone_digits column of migrate_members_search.sql
+    private static final String PHONE_DIGITS_EXPR =
+        "REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(phone_number, '-', ''), ' ', ''), '.', ''), '(', ''), ')', ''), '+', '')";
+    
+    private final MemberCache cache = MemberCache.getInstance();
     
     public MemberDAO() {
         // Get fresh connection each time
@@ -21,29 +28,33 @@ public class MemberDAO {
     
     // Create - Add new member
     public boolean insertMember(Member member) {
-        Connection connection = getConnection();
-        if (connection == null) {
-            System.err.println("⚠️ Database connection is null! Cannot insert member.");
+        // Check if phone number already exists (before borrowing our own connection)
+        if (getMemberByPhone(member.getPhoneNumber()) != null) {
+            System.err.println("⚠️ Member with phone " + member.getPhoneNumber() + " already exists.");
             return false;
         }
         
-        // Check if phone number already exists
-        if (getMemberByPhone(member.getPhoneNumber()) != null) {
-            System.err.println("⚠️ Member with phone " + member.getPhoneNumber() + " already exists.");
+        Connection connection = getConnection();
+        if (connection == null) {
+            System.err.println("⚠️ Database connection is null! Cannot insert member.");
             return false;
         }
         
         String sql = "INSERT INTO members (phone_number, name, total_spent, membership_level, discount_percent) " +
                     "VALUES (?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, member.getPhoneNumber());
             pstmt.setString(2, member.getName());
             pstmt.setDouble(3, member.getTotalSpent());
             pstmt.setInt(4, member.getMembershipLevel());
             pstmt.setDouble(5, member.getDiscountPercent());
             
+            long stamp = cache.loadStamp();
             int rows = pstmt.executeUpdate();
+            if (rows > 0) {
+                cache.put(member, stamp);
+            }
             return rows > 0;
         } catch (SQLException e) {
             System.err.println("⚠️ SQL Error inserting member: " + e.getMessage());
@@ -54,34 +65,48 @@ public class MemberDAO {
     
     // Read - Get member by phone number (works with or without hyphens)
     public Member getMemberByPhone(String phoneNumber) {
+        Member cached = cache.get(phoneNumber);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = cache.loadStamp(); // before the read, so a write racing it wins
+        Member member = loadMemberByPhone(phoneNumber);
+        if (member != null) {
+            cache.put(member, stamp);
+        }
+        return member;
+    }
+    
+    private Member loadMemberByPhone(String phoneNumber) {
         Connection connection = getConnection();
         if (connection == null) {
             return null;
         }
         
-        // Try exact match first
-        String sql = "SELECT * FROM members WHERE phone_number = ?";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, phoneNumber);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    Member member = new Member(
-                        rs.getString("phone_number"),
-                        rs.getString("name"),
-                        rs.getDouble("total_spent")
-                    );
-                    return member;
+        try (connection) {
+            if (MemberSchema.hasSearchColumns(connection)) {
+                // One indexed lookup on the digits; prefer an exact match if several rows share them
+                String sql = "SELECT * FROM members WHERE phone_digits = ? " +
+                            "ORDER BY (phone_number = ?) DESC LIMIT 1";
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, Member.normalizePhone(phoneNumber));
+                    pstmt.setString(2, phoneNumber);
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            return new Member(
+                                rs.getString("phone_number"),
+                                rs.getString("name"),
+                                rs.getDouble("total_spent")
+                            );
+                        }
+                    }
                 }
+                return null;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        
-        // If not found and search term has no hyphens, try matching without hyphens
-        if (!phoneNumber.contains("-")) {
-            sql = "SELECT * FROM members WHERE REPLACE(phone_number, '-', '') = ?";
+            
+            // Try exact match first
+            String sql = "SELECT * FROM members WHERE phone_number = ?";
             
             try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
                 pstmt.setString(1, phoneNumber);
@@ -99,6 +124,30 @@ public class MemberDAO {
             } catch (SQLException e) {
                 e.printStackTrace();
             }
+            
+            // If not found and search term has no hyphens, try matching without hyphens
+            if (!phoneNumber.contains("-")) {
+                sql = "SELECT * FROM members WHERE REPLACE(phone_number, '-', '') = ?";
+                
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, phoneNumber);
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            Member member = new Member(
+                                rs.getString("phone_number"),
+                                rs.getString("name"),
+                                rs.getDouble("total_spent")
+                            );
+                            return member;
+                        }
+                    }
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
         
         return null;
@@ -114,7 +163,7 @@ public class MemberDAO {
         
         String sql = "SELECT * FROM members ORDER BY total_spent DESC";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -132,7 +181,50 @@ public class MemberDAO {
         return members;
     }
     
-    // Read - Search members by name or phone
+    /**
+     * One page of members using keyset pagination on (total_spent DESC, phone_number),
+     * the member table's order. Pass null as 'after' for the first page, then the last
+     * member of the previous page. Served by idx_members_spent (migrate_members_search.sql).
+     */
+    public List<Member> getMembersPage(Member after, int pageSize) {
+        List<Member> page = new ArrayList<>(pageSize);
+        Connection connection = getConnection();
+        if (connection == null) {
+            return page;
+        }
+        
+        String sql = "SELECT * FROM members " +
+                    (after == null ? "" :
+                    "WHERE (total_spent < ? OR (total_spent = ? AND phone_number > ?)) ") +
+                    "ORDER BY total_spent DESC, phone_number ASC LIMIT ?";
+        
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int i = 1;
+            if (after != null) {
+                pstmt.setDouble(i++, after.getTotalSpent());
+                pstmt.setDouble(i++, after.getTotalSpent());
+                pstmt.setString(i++, after.getPhoneNumber());
+            }
+            pstmt.setInt(i, pageSize);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new Member(
+                        rs.getString("phone_number"),
+                        rs.getString("name"),
+                        rs.getDouble("total_spent")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        
+        return page;
+    }
+    
+    // Read - Search members by name or phone (same matching as MemberSearchIndex):
+    // name starts with the term, or for a phone-like term the phone digits start or end with its digits
     public List<Member> searchMembers(String searchTerm) {
         List<Member> members = new ArrayList<>();
         Connection connection = getConnection();
@@ -140,16 +232,7 @@ public class MemberDAO {
             return members;
         }
         
-        // Remove hyphens from search term for phone number matching
-        String cleanSearchTerm = searchTerm.replace("-", "");
-        
-        String sql = "SELECT * FROM members WHERE REPLACE(phone_number, '-', '') LIKE ? OR name LIKE ? ORDER BY total_spent DESC";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            String searchPattern = "%" + cleanSearchTerm + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, "%" + searchTerm + "%"); // Keep original for name search
-            
+        try (connection; PreparedStatement pstmt = prepareSearch(connection, searchTerm)) {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     Member member = new Member(
@@ -167,6 +250,31 @@ public class MemberDAO {
         return members;
     }
     
+    // With the phone_digits columns every condition is an index prefix search (merged by
+    // MySQL for the OR); without them the same conditions are evaluated on every row
+    private PreparedStatement prepareSearch(Connection connection, String searchTerm) throws SQLException {
+        String digits = Member.phoneSearchDigits(searchTerm);
+        boolean indexed = MemberSchema.hasSearchColumns(connection);
+        StringBuilder sql = new StringBuilder("SELECT * FROM members WHERE name LIKE ?");
+        if (!digits.isEmpty()) {
+            sql.append(indexed ? " OR phone_digits LIKE ? OR phone_digits_rev LIKE ?"
+                               : " OR " + PHONE_DIGITS_EXPR + " LIKE ? OR " + PHONE_DIGITS_EXPR + " LIKE ?");
+        }
+        sql.append(" ORDER BY total_spent DESC, phone_number ASC");
+        
+        PreparedStatement pstmt = connection.prepareStatement(sql.toString());
+        pstmt.setString(1, escapeLike(searchTerm) + "%");
+        if (!digits.isEmpty()) {
+            pstmt.setString(2, digits + "%");
+            pstmt.setString(3, indexed ? new StringBuilder(digits).reverse() + "%" : "%" + digits);
+        }
+        return pstmt;
+    }
+    
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     // Update member
     public boolean updateMember(Member member) {
         Connection connection = getConnection();
@@ -177,18 +285,73 @@ public class MemberDAO {
         String sql = "UPDATE members SET name=?, total_spent=?, membership_level=?, discount_percent=? " +
                     "WHERE phone_number=?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, member.getName());
             pstmt.setDouble(2, member.getTotalSpent());
             pstmt.setInt(3, member.getMembershipLevel());
             pstmt.setDouble(4, member.getDiscountPercent());
             pstmt.setString(5, member.getPhoneNumber());
             
+            long stamp = cache.loadStamp();
             int rows = pstmt.executeUpdate();
+            if (rows > 0) {
+                cache.put(member, stamp); // write-through
+            } else {
+                cache.invalidate(member.getPhoneNumber());
+            }
             return rows > 0;
+        } catch (SQLException e) {
+            cache.invalidate(member.getPhoneNumber());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Add a payment to a member's total in one UPDATE, deriving level and discount from
+     * the new total in the same statement, so concurrent payments are never lost.
+     * The cached copy is dropped; the next getMemberByPhone reads the new total.
+     * Returns false if the member does not exist or the update failed.
+     */
+    public boolean addSpending(String phoneNumber, double amount) {
+        Connection connection = getConnection();
+        if (connection == null) {
+            return false;
+        }
+        
+        // MySQL evaluates single-table UPDATE assignments left to right, so the CASEs
+        // below already see the new total_spent
+        String sql = "UPDATE members SET total_spent = total_spent + ?, " +
+                    "membership_level = CASE WHEN total_spent >= ? THEN 1 WHEN total_spent >= ? THEN 2 " +
+                    "WHEN total_spent >= ? THEN 3 WHEN total_spent >= ? THEN 4 ELSE 5 END, " +
+                    "discount_percent = CASE WHEN total_spent >= ? THEN ? WHEN total_spent >= ? THEN ? " +
+                    "WHEN total_spent >= ? THEN ? WHEN total_spent >= ? THEN ? ELSE ? END " +
+                    "WHERE phone_number = ?";
+        
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int i = 1;
+            pstmt.setDouble(i++, amount);
+            pstmt.setDouble(i++, Member.LEVEL_1_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_2_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_3_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_4_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_1_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_1_DISCOUNT);
+            pstmt.setDouble(i++, Member.LEVEL_2_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_2_DISCOUNT);
+            pstmt.setDouble(i++, Member.LEVEL_3_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_3_DISCOUNT);
+            pstmt.setDouble(i++, Member.LEVEL_4_THRESHOLD);
+            pstmt.setDouble(i++, Member.LEVEL_4_DISCOUNT);
+            pstmt.setDouble(i++, Member.LEVEL_5_DISCOUNT);
+            pstmt.setString(i, phoneNumber);
+            return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
+        } finally {
+            // After the UPDATE, so a lookup racing it cannot re-cache the old total
+            cache.invalidate(phoneNumber);
         }
     }
     
@@ -201,13 +364,15 @@ public class MemberDAO {
         
         String sql = "DELETE FROM members WHERE phone_number = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, phoneNumber);
             int rows = pstmt.executeUpdate();
             return rows > 0;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
+        } finally {
+            cache.invalidate(phoneNumber); // after the DELETE, like addSpending
         }
     }
     
@@ -221,7 +386,7 @@ public class MemberDAO {
         
         String sql = "SELECT * FROM members WHERE membership_level = ? ORDER BY total_spent DESC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, level);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -250,7 +415,7 @@ public class MemberDAO {
         
         String sql = "SELECT COUNT(*) as count FROM members";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             if (rs.next()) {
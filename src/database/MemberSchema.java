@@ -0,0 +1,54 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Detects whether the members table has the indexed search columns added by
+ * migrate_members_search.sql (the application never changes the schema itself)
+ * - phone_digits: the phone number without separators, as a stored generated column
+ * - phone_digits_rev: the same digits reversed, so "ends with 5678" is an index prefix search
+ * Checked once per run from the connection's metadata; without the columns MemberDAO
+ * keeps the old queries.
+ */
+class MemberSchema {
+    private static Boolean searchColumns; // null until checked, guarded by MemberSchema.class
+
+    private MemberSchema() {
+    }
+
+    /**
+     * Whether members has the phone_digits and phone_digits_rev columns
+     */
+    static synchronized boolean hasSearchColumns(Connection connection) {
+        if (searchColumns == null) {
+            try {
+                searchColumns = detect(connection);
+            } catch (SQLException e) {
+                // Not cached, so the next lookup checks again
+                System.err.println("⚠️ Could not read the members table columns: " + e.getMessage());
+                return false;
+            }
+            if (!searchColumns) {
+                System.out.println("ℹ️ members has no phone_digits columns; run migrate_members_search.sql for indexed member search");
+            }
+        }
+        return searchColumns;
+    }
+
+    private static boolean detect(Connection connection) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        boolean digits = false;
+        boolean reversed = false;
+        try (ResultSet rs = meta.getColumns(connection.getCatalog(), null, "members", "phone_digits%")) {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                digits |= "phone_digits".equalsIgnoreCase(column);
+                reversed |= "phone_digits_rev".equalsIgnoreCase(column);
+            }
+        }
+        return digits && reversed;
+    }
+}
@@ -21,22 +21,22 @@ public class MenuItemDAO {
     
     // Create
     public boolean insertMenuItem(MenuItem item) {
-        Connection connection = getConnection();
-        if (connection == null) {
-            System.err.println("⚠️ Database connection is null! Cannot insert menu item.");
+        // First check if item with this ID already exists (before borrowing our own connection)
+        if (getMenuItemById(item.getId()) != null) {
+            System.err.println("⚠️ Menu item with ID " + item.getId() + " already exists. Cannot insert.");
             return false;
         }
         
-        // First check if item with this ID already exists
-        if (getMenuItemById(item.getId()) != null) {
-            System.err.println("⚠️ Menu item with ID " + item.getId() + " already exists. Cannot insert.");
+        Connection connection = getConnection();
+        if (connection == null) {
+            System.err.println("⚠️ Database connection is null! Cannot insert menu item.");
             return false;
         }
         
         String sql = "INSERT INTO menu_items (id, name, category, price, description, image_path, available) " +
                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, item.getId());
             pstmt.setString(2, item.getName());
             pstmt.setString(3, item.getCategory());
@@ -64,7 +64,7 @@ public class MenuItemDAO {
         
         String sql = "SELECT * FROM menu_items ORDER BY id";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -95,7 +95,7 @@ public class MenuItemDAO {
         
         String sql = "SELECT * FROM menu_items WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -129,7 +129,7 @@ public class MenuItemDAO {
         String sql = "UPDATE menu_items SET name=?, category=?, price=?, description=?, image_path=?, available=? " +
                     "WHERE id=?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, item.getName());
             pstmt.setString(2, item.getCategory());
             pstmt.setDouble(3, item.getPrice());
@@ -155,7 +155,7 @@ public class MenuItemDAO {
         
         String sql = "DELETE FROM menu_items WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, id);
             int rows = pstmt.executeUpdate();
             return rows > 0;
@@ -175,7 +175,7 @@ public class MenuItemDAO {
         
         String sql = "SELECT * FROM menu_items WHERE category = ? ORDER BY name";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, category);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -1,17 +1,34 @@
 package database;
 
+import model.MenuItem;
 import model.Order;
 import model.OrderItem;
+import model.Payment;
+import model.SalesSummaryRow;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data Access Object for Order
  */
 public class OrderDAO {
     
+    private static final int HISTORY_FETCH_SIZE = 500;
+    
+    /**
+     * Receives orders rebuilt from the database, one at a time
+     */
+    public interface SaleHandler {
+        void onSale(Order order, Payment payment);
+    }
+    
     public OrderDAO() {
         // No longer caching connection - will get fresh connection each time
     }
@@ -23,11 +40,167 @@ public class OrderDAO {
     
     // Insert Order with Items
     public boolean insertOrder(Order order) {
+        return insertInTransaction(order, null);
+    }
+    
+    // Insert Order, Items and Payment in a single transaction
+    public boolean insertOrderWithPayment(Order order, Payment payment) {
+        return insertInTransaction(order, payment);
+    }
+    
+    private boolean insertInTransaction(Order order, Payment payment) {
         Connection connection = getConnection();
         if (connection == null) {
             return false;
         }
         
+        try {
+            connection.setAutoCommit(false); // Start transaction
+            
+            insertOrderRows(connection, order);
+            if (payment != null) {
+                PaymentDAO.insertPaymentRow(connection, payment);
+            }
+            
+            connection.commit(); // Commit transaction
+            return true;
+            
+        } catch (SQLException e) {
+            try {
+                connection.rollback(); // Rollback on error
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+            return false;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            try {
+                connection.close(); // Return to pool
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Bulk-load sales from an exported sales summary (CSVImporter), one transaction per call.
+     * The summary has no line items, so orders keep the exported subtotal / discount / total
+     * without item rows. payments.get(i) belongs to rows.get(i).
+     * Orders already in the database are skipped together with their payment, so an import
+     * can safely be re-run. The rest are plain INSERTs: any other error (bad value, missing
+     * column, an order stored meanwhile) rolls the batch back and is thrown.
+     * Returns the IDs of the orders that were inserted.
+     */
+    public Set<String> importSales(List<SalesSummaryRow> rows, List<Payment> payments) throws SQLException {
+        Connection connection = getConnection();
+        if (connection == null) {
+            throw new SQLException("Database unavailable");
+        }
+        
+        String orderSql = "INSERT INTO orders (order_id, order_date, order_time, subtotal, " +
+                         "discount_percent, discount_amount, total_amount, status) " +
+                         "VALUES (?, ?, ?, ?, ?, ?, ?, 'Completed')";
+        
+        try (connection) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement pstmt = connection.prepareStatement(orderSql)) {
+                Set<String> existing = findExistingOrderIds(connection, rows);
+                Set<String> inserted = new LinkedHashSet<>();
+                List<Payment> newPayments = new ArrayList<>(payments.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    SalesSummaryRow row = rows.get(i);
+                    if (existing.contains(row.getOrderId()) || !inserted.add(row.getOrderId())) {
+                        continue; // stored already (maybe with a different payment) or repeated in the file
+                    }
+                    newPayments.add(payments.get(i));
+                    pstmt.setString(1, row.getOrderId());
+                    pstmt.setDate(2, Date.valueOf(row.getDate()));
+                    pstmt.setTime(3, Time.valueOf(row.getTime()));
+                    pstmt.setDouble(4, row.getSubtotal());
+                    pstmt.setDouble(5, row.getSubtotal() > 0 ? row.getDiscount() / row.getSubtotal() * 100 : 0.0);
+                    pstmt.setDouble(6, row.getDiscount());
+                    pstmt.setDouble(7, row.getTotal());
+                    pstmt.addBatch();
+                }
+                if (!inserted.isEmpty()) {
+                    pstmt.executeBatch();
+                    PaymentDAO.insertPaymentRows(connection, newPayments);
+                }
+                connection.commit();
+                return inserted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+    
+    // Order IDs of these rows that are already stored (one query per import batch)
+    private static Set<String> findExistingOrderIds(Connection connection, List<SalesSummaryRow> rows) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (rows.isEmpty()) {
+            return existing;
+        }
+        StringBuilder sql = new StringBuilder("SELECT order_id FROM orders WHERE order_id IN (");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < rows.size(); i++) {
+                pstmt.setString(i + 1, rows.get(i).getOrderId());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        }
+        return existing;
+    }
+    
+    /**
+     * Insert several completed sales in one transaction (used by SalesPersistenceQueue).
+     * payments.get(i) belongs to orders.get(i). Errors are thrown so the caller can retry.
+     */
+    void insertSales(List<Order> orders, List<Payment> payments) throws SQLException {
+        Connection connection = getConnection();
+        if (connection == null) {
+            throw new SQLException("Database unavailable");
+        }
+        
+        try (connection) {
+            connection.setAutoCommit(false);
+            try {
+                insertOrderRows(connection, orders);
+                PaymentDAO.insertPaymentRows(connection, payments);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+    
+    static void insertOrderRows(Connection connection, Order order) throws SQLException {
+        insertOrderRows(connection, Collections.singletonList(order));
+    }
+    
+    /**
+     * Insert order rows and all of their line items on the caller's connection.
+     * Each table goes out as one JDBC batch, which the driver rewrites into a single
+     * multi-row INSERT (rewriteBatchedStatements=true in DatabaseManager).
+     */
+    static void insertOrderRows(Connection connection, List<Order> orders) throws SQLException {
         String orderSql = "INSERT INTO orders (order_id, order_date, order_time, subtotal, " +
                          "discount_percent, discount_amount, total_amount, status) " +
                          "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
@@ -35,25 +208,27 @@ public class OrderDAO {
         String itemSql = "INSERT INTO order_items (order_id, menu_item_id, menu_item_name, " +
                         "quantity, unit_price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try {
-            connection.setAutoCommit(false); // Start transaction
-            
-            // Insert order
-            try (PreparedStatement pstmt = connection.prepareStatement(orderSql)) {
+        boolean hasItems = false;
+        
+        // Insert orders
+        try (PreparedStatement pstmt = connection.prepareStatement(orderSql)) {
+            for (Order order : orders) {
                 pstmt.setString(1, order.getOrderId());
-                pstmt.setDate(2, Date.valueOf(LocalDate.now()));
+                pstmt.setDate(2, Date.valueOf(order.getOrderTime().toLocalDate())); // not now(): writes may be deferred
                 pstmt.setTime(3, Time.valueOf(order.getOrderTime().toLocalTime()));
                 pstmt.setDouble(4, order.getSubtotal());
                 pstmt.setDouble(5, order.getDiscountPercent());
                 pstmt.setDouble(6, order.getDiscountAmount());
                 pstmt.setDouble(7, order.getTotal());
                 pstmt.setString(8, order.getStatus());
-                
-                pstmt.executeUpdate();
+                pstmt.addBatch();
             }
-            
-            // Insert order items
-            try (PreparedStatement pstmt = connection.prepareStatement(itemSql)) {
+            pstmt.executeBatch();
+        }
+        
+        // Insert order items as one batch
+        try (PreparedStatement pstmt = connection.prepareStatement(itemSql)) {
+            for (Order order : orders) {
                 for (OrderItem item : order.getItems()) {
                     pstmt.setString(1, order.getOrderId());
                     pstmt.setString(2, item.getMenuItem().getId());
@@ -61,32 +236,17 @@ public class OrderDAO {
                     pstmt.setInt(4, item.getQuantity());
                     pstmt.setDouble(5, item.getMenuItem().getPrice());
                     pstmt.setDouble(6, item.getSubtotal());
-                    
-                    pstmt.executeUpdate();
+                    pstmt.addBatch();
+                    hasItems = true;
                 }
             }
-            
-            connection.commit(); // Commit transaction
-            return true;
-            
-        } catch (SQLException e) {
-            try {
-                connection.rollback(); // Rollback on error
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                e.printStackTrace();
+            if (hasItems) {
+                pstmt.executeBatch();
             }
         }
     }
     
-    // Get Orders by Date
+    // Get Orders by Date (with their items, in one joined query)
     public List<Order> getOrdersByDate(LocalDate date) {
         List<Order> orders = new ArrayList<>();
         Connection connection = getConnection();
@@ -94,26 +254,221 @@ public class OrderDAO {
             return orders;
         }
         
-        String sql = "SELECT * FROM orders WHERE order_date = ? ORDER BY order_time DESC";
+        String sql = "SELECT o.order_id, o.order_date, o.order_time, o.subtotal, o.discount_percent, o.status, " +
+                    "i.menu_item_id, i.menu_item_name, i.quantity, i.unit_price " +
+                    "FROM orders o " +
+                    "LEFT JOIN order_items i ON i.order_id = o.order_id " +
+                    "WHERE o.order_date = ? " +
+                    "ORDER BY o.order_time DESC, o.order_id";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
             pstmt.setDate(1, Date.valueOf(date));
+            pstmt.setFetchSize(HISTORY_FETCH_SIZE);
             
+            try (ResultSet rs = pstmt.executeQuery()) {
+                readJoinedOrders(rs, (order, payment) -> orders.add(order));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        
+        return orders;
+    }
+    
+    /**
+     * Stream every paid order with its items and payment, oldest first.
+     * Uses a forward-only cursor fetched HISTORY_FETCH_SIZE rows at a time,
+     * so memory stays flat however large the history is.
+     * Returns the number of sales handed to the handler.
+     */
+    public int streamSalesHistory(SaleHandler handler) {
+        Connection connection = getConnection();
+        if (connection == null) {
+            return 0;
+        }
+        
+        String sql = "SELECT o.order_id, o.order_date, o.order_time, o.subtotal, o.discount_percent, o.status, " +
+                    "p.payment_id, p.payment_date, p.payment_time, p.payment_method, p.amount, p.received_amount, " +
+                    "i.menu_item_id, i.menu_item_name, i.quantity, i.unit_price " +
+                    "FROM orders o " +
+                    "JOIN payments p ON p.order_id = o.order_id " +
+                    "LEFT JOIN order_items i ON i.order_id = o.order_id " +
+                    "ORDER BY o.order_date, o.order_time, o.order_id";
+        
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(HISTORY_FETCH_SIZE);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readJoinedOrders(rs, handler);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+    
+    /**
+     * Rebuild orders from rows of orders [JOIN payments] LEFT JOIN order_items.
+     * Rows of one order must be adjacent; payment columns are read only if present.
+     */
+    private static int readJoinedOrders(ResultSet rs, SaleHandler handler) throws SQLException {
+        boolean withPayment = hasColumn(rs, "payment_id");
+        int count = 0;
+        Order current = null;
+        Payment currentPayment = null;
+        
+        while (rs.next()) {
+            String orderId = rs.getString("order_id");
+            if (current == null || !current.getOrderId().equals(orderId)) {
+                if (current != null) {
+                    handler.onSale(current, currentPayment);
+                    count++;
+                }
+                current = new Order(orderId, LocalDateTime.of(
+                    rs.getDate("order_date").toLocalDate(), rs.getTime("order_time").toLocalTime()));
+                current.setDiscountPercent(rs.getDouble("discount_percent"));
+                current.setStoredSubtotal(rs.getDouble("subtotal")); // used only if it has no item rows
+                current.setStatus(rs.getString("status"));
+                currentPayment = withPayment ? readPayment(rs, orderId) : null;
+            }
+            
+            String menuItemId = rs.getString("menu_item_id");
+            if (menuItemId != null) {
+                // order_items has no category; the receipt only needs name and price
+                MenuItem menuItem = new MenuItem(menuItemId, rs.getString("menu_item_name"), "",
+                    rs.getDouble("unit_price"), "");
+                current.addItem(menuItem, rs.getInt("quantity"));
+            }
+        }
+        if (current != null) {
+            handler.onSale(current, currentPayment);
+            count++;
+        }
+        return count;
+    }
+    
+    private static Payment readPayment(ResultSet rs, String orderId) throws SQLException {
+        Payment payment = new Payment(
+            rs.getString("payment_id"),
+            orderId,
+            rs.getDouble("amount"),
+            Payment.PaymentMethod.valueOf(rs.getString("payment_method")),
+            LocalDateTime.of(rs.getDate("payment_date").toLocalDate(), rs.getTime("payment_time").toLocalTime())
+        );
+        if (payment.getMethod() == Payment.PaymentMethod.CASH) {
+            double received = rs.getDouble("received_amount");
+            if (received >= payment.getAmount()) {
+                payment.processCashPayment(received);
+            }
+        }
+        return payment;
+    }
+    
+    private static boolean hasColumn(ResultSet rs, String column) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(meta.getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Whether the order and payment stored under these IDs are this sale (same order time,
+     * payment ID and amount), i.e. an earlier attempt to save it did commit
+     */
+    boolean isSaleStored(Order order, Payment payment) throws SQLException {
+        Connection connection = getConnection();
+        if (connection == null) {
+            throw new SQLException("Database unavailable");
+        }
+        
+        String sql = "SELECT o.order_date, o.order_time, p.payment_id, p.amount " +
+                    "FROM orders o LEFT JOIN payments p ON p.order_id = o.order_id " +
+                    "WHERE o.order_id = ?";
+        
+        LocalDateTime orderTime = order.getOrderTime().withNano(0); // TIME keeps whole seconds
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, order.getOrderId());
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    // Note: We're creating a basic order without items for now
-                    // You can extend this to load items if needed
-                    Order order = new Order(rs.getString("order_id"));
-                    order.setDiscountPercent(rs.getDouble("discount_percent"));
-                    order.setStatus(rs.getString("status"));
-                    orders.add(order);
+                    LocalDateTime stored = LocalDateTime.of(
+                        rs.getDate("order_date").toLocalDate(), rs.getTime("order_time").toLocalTime());
+                    if (stored.equals(orderTime)
+                            && payment.getPaymentId().equals(rs.getString("payment_id"))
+                            && Math.abs(rs.getDouble("amount") - payment.getAmount()) < 0.005) {
+                        return true;
+                    }
                 }
             }
+        }
+        return false;
+    }
+    
+    /**
+     * The highest order ID that starts with the prefix (e.g. a date as yyyyMMdd),
+     * or null if there is none or the database is unavailable
+     */
+    public String getLastOrderId(String prefix) {
+        Connection connection = getConnection();
+        if (connection == null) {
+            return null;
+        }
+        
+        // Longest first, so ...10000 sorts after ...9999
+        String sql = "SELECT order_id FROM orders WHERE order_id LIKE ? " +
+                    "ORDER BY LENGTH(order_id) DESC, order_id DESC LIMIT 1";
+        
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, prefix + "%");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+    
+    // Update order status (e.g. "Cancelled")
+    public boolean updateOrderStatus(String orderId, String status) {
+        Connection connection = getConnection();
+        if (connection == null) {
+            return false;
         }
         
-        return orders;
+        try (connection) {
+            return setOrderStatus(connection, orderId, status) > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Same as updateOrderStatus, but failures are thrown so SalesPersistenceQueue can retry;
+     * returns the number of orders changed (0 if the order is not stored)
+     */
+    int setOrderStatus(String orderId, String status) throws SQLException {
+        Connection connection = getConnection();
+        if (connection == null) {
+            throw new SQLException("Database unavailable");
+        }
+        try (connection) {
+            return setOrderStatus(connection, orderId, status);
+        }
+    }
+    
+    private int setOrderStatus(Connection connection, String orderId, String status) throws SQLException {
+        String sql = "UPDATE orders SET status = ? WHERE order_id = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, status);
+            pstmt.setString(2, orderId);
+            return pstmt.executeUpdate();
+        }
     }
     
     // Get Total Orders Count
@@ -125,7 +480,7 @@ public class OrderDAO {
         
         String sql = "SELECT COUNT(*) as count FROM orders";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             if (rs.next()) {
@@ -147,7 +502,7 @@ public class OrderDAO {
         
         String sql = "SELECT COUNT(*) as count FROM orders WHERE order_date = CURDATE()";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             if (rs.next()) {
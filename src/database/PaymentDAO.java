@@ -1,6 +1,7 @@
 package database;
 
 import model.Payment;
+import model.SalesSummaryRow;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -13,6 +14,30 @@ import java.util.Map;
  */
 public class PaymentDAO {
     
+    private static final int SUMMARY_FETCH_SIZE = 1000;
+    
+    private static final String SUMMARY_SELECT =
+        "SELECT p.payment_date, p.payment_time, p.order_id, p.payment_method, p.amount, " +
+        "o.subtotal, o.discount_amount " +
+        "FROM payments p " +
+        "JOIN orders o ON p.order_id = o.order_id ";
+    
+    // order_id breaks ties so exports list sales in a stable order
+    private static final String SUMMARY_ORDER =
+        "ORDER BY p.payment_date DESC, p.payment_time DESC, p.order_id DESC ";
+    
+    /**
+     * Receives sales summary rows one at a time; return false to stop
+     */
+    public interface SalesSummaryHandler {
+        boolean onRow(SalesSummaryRow row);
+    }
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO payments (payment_id, order_id, payment_date, payment_time, " +
+        "payment_method, amount, received_amount, change_amount) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
     public PaymentDAO() {
         // No longer caching connection - will get fresh connection each time
     }
@@ -29,28 +54,44 @@ public class PaymentDAO {
             return false;
         }
         
-        String sql = "INSERT INTO payments (payment_id, order_id, payment_date, payment_time, " +
-                    "payment_method, amount, received_amount, change_amount) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, payment.getPaymentId());
-            pstmt.setString(2, payment.getOrderId());
-            pstmt.setDate(3, Date.valueOf(LocalDate.now()));
-            pstmt.setTime(4, Time.valueOf(payment.getPaymentTime().toLocalTime()));
-            pstmt.setString(5, payment.getMethod().toString());
-            pstmt.setDouble(6, payment.getAmount());
-            pstmt.setDouble(7, payment.getReceivedAmount());
-            pstmt.setDouble(8, payment.getChangeAmount());
-            
-            int rows = pstmt.executeUpdate();
-            return rows > 0;
+        try (connection) {
+            return insertPaymentRow(connection, payment) > 0;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
     
+    // Insert the payment row on the caller's connection (lets OrderDAO share its transaction)
+    static int insertPaymentRow(Connection connection, Payment payment) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+            bindPayment(pstmt, payment);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    // Insert several payment rows as one batch on the caller's connection
+    static void insertPaymentRows(Connection connection, List<Payment> payments) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+            for (Payment payment : payments) {
+                bindPayment(pstmt, payment);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    private static void bindPayment(PreparedStatement pstmt, Payment payment) throws SQLException {
+        pstmt.setString(1, payment.getPaymentId());
+        pstmt.setString(2, payment.getOrderId());
+        pstmt.setDate(3, Date.valueOf(payment.getPaymentTime().toLocalDate()));
+        pstmt.setTime(4, Time.valueOf(payment.getPaymentTime().toLocalTime()));
+        pstmt.setString(5, payment.getMethod().toString());
+        pstmt.setDouble(6, payment.getAmount());
+        pstmt.setDouble(7, payment.getReceivedAmount());
+        pstmt.setDouble(8, payment.getChangeAmount());
+    }
+    
     // Get Total Revenue
     public double getTotalRevenue() {
         Connection connection = getConnection();
@@ -60,7 +101,7 @@ public class PaymentDAO {
         
         String sql = "SELECT SUM(amount) as total FROM payments";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             if (rs.next()) {
@@ -82,7 +123,7 @@ public class PaymentDAO {
         
         String sql = "SELECT SUM(amount) as total FROM payments WHERE payment_date = CURDATE()";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             if (rs.next()) {
@@ -105,7 +146,7 @@ public class PaymentDAO {
         
         String sql = "SELECT * FROM payments WHERE payment_date = ? ORDER BY payment_time DESC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setDate(1, Date.valueOf(date));
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -147,7 +188,7 @@ public class PaymentDAO {
                     "GROUP BY menu_item_name " +
                     "ORDER BY total_qty DESC";
         
-        try (Statement stmt = connection.createStatement();
+        try (connection; Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -163,47 +204,71 @@ public class PaymentDAO {
     // Get Sales Summary for CSV Export
     public List<Map<String, Object>> getSalesSummary(LocalDate startDate, LocalDate endDate) {
         List<Map<String, Object>> summary = new ArrayList<>();
+        
+        streamSalesSummary(startDate, endDate, row -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("date", Date.valueOf(row.getDate()));
+            map.put("time", Time.valueOf(row.getTime()));
+            map.put("order_id", row.getOrderId());
+            map.put("payment_method", row.getPaymentMethod());
+            map.put("subtotal", row.getSubtotal());
+            map.put("discount", row.getDiscount());
+            map.put("total", row.getTotal());
+            summary.add(map);
+            return true;
+        });
+        
+        return summary;
+    }
+    
+    /**
+     * Stream the sales summary row by row (newest first) through a forward-only cursor,
+     * so reports over any date range run in constant memory.
+     * The handler returns false to stop early. Returns the number of rows handled,
+     * or -1 if the database is unavailable or the query failed part way.
+     */
+    public int streamSalesSummary(LocalDate startDate, LocalDate endDate, SalesSummaryHandler handler) {
         Connection connection = getConnection();
         if (connection == null) {
-            return summary;
+            return -1;
         }
         
-        String sql = "SELECT " +
-                    "p.payment_date, " +
-                    "p.payment_time, " +
-                    "p.order_id, " +
-                    "p.payment_method, " +
-                    "p.amount, " +
-                    "o.subtotal, " +
-                    "o.discount_amount " +
-                    "FROM payments p " +
-                    "JOIN orders o ON p.order_id = o.order_id " +
+        String sql = SUMMARY_SELECT +
                     "WHERE p.payment_date BETWEEN ? AND ? " +
-                    "ORDER BY p.payment_date DESC, p.payment_time DESC";
+                    SUMMARY_ORDER;
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (connection; PreparedStatement pstmt = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
             pstmt.setDate(1, Date.valueOf(startDate));
             pstmt.setDate(2, Date.valueOf(endDate));
+            pstmt.setFetchSize(SUMMARY_FETCH_SIZE);
             
+            int count = 0;
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> row = new HashMap<>();
-                    row.put("date", rs.getDate("payment_date"));
-                    row.put("time", rs.getTime("payment_time"));
-                    row.put("order_id", rs.getString("order_id"));
-                    row.put("payment_method", rs.getString("payment_method"));
-                    row.put("subtotal", rs.getDouble("subtotal"));
-                    row.put("discount", rs.getDouble("discount_amount"));
-                    row.put("total", rs.getDouble("amount"));
-                    
-                    summary.add(row);
+                    count++;
+                    if (!handler.onRow(readSummaryRow(rs))) {
+                        break;
+                    }
                 }
             }
+            return count;
         } catch (SQLException e) {
             e.printStackTrace();
+            return -1;
         }
-        
-        return summary;
+    }
+    
+    private static SalesSummaryRow readSummaryRow(ResultSet rs) throws SQLException {
+        return new SalesSummaryRow(
+            rs.getDate("payment_date").toLocalDate(),
+            rs.getTime("payment_time").toLocalTime(),
+            rs.getString("order_id"),
+            rs.getString("payment_method"),
+            rs.getDouble("subtotal"),
+            rs.getDouble("discount_amount"),
+            rs.getDouble("amount")
+        );
     }
 }
 
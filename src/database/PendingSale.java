@@ -0,0 +1,17 @@
+package database;
+
+import model.Order;
+import model.Payment;
+
+/**
+ * A completed order and its payment waiting to be written to MySQL
+ */
+class PendingSale {
+    final Order order;
+    final Payment payment;
+
+    PendingSale(Order order, Payment payment) {
+        this.order = order;
+        this.payment = payment;
+    }
+}
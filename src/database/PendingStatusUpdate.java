@@ -0,0 +1,14 @@
+package database;
+
+/**
+ * An order status change (e.g. a cancellation) waiting to be written to MySQL
+ */
+class PendingStatusUpdate {
+    final String orderId;
+    final String status;
+
+    PendingStatusUpdate(String orderId, String status) {
+        this.orderId = orderId;
+        this.status = status;
+    }
+}
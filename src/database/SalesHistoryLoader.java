@@ -0,0 +1,77 @@
+package database;
+
+import model.Order;
+import model.SalesData;
+
+/**
+ * Loads past sales from MySQL into SalesData on a background thread
+ * - Rows are streamed from the database, so the register is usable while it runs
+ * - Cancelled orders are restored into the cancelled list
+ * - A stored sale whose ID is already used by a different sale made since startup is
+ *   reported rather than silently dropped
+ */
+public class SalesHistoryLoader {
+    private static final int PROGRESS_INTERVAL = 500;
+
+    /**
+     * Progress callbacks, invoked on the loader thread
+     */
+    public interface ProgressListener {
+        void onProgress(int loaded);
+        void onComplete(int total);
+    }
+
+    private final SalesData salesData;
+    private final OrderDAO orderDAO;
+
+    public SalesHistoryLoader(SalesData salesData) {
+        this.salesData = salesData;
+        this.orderDAO = new OrderDAO();
+    }
+
+    public Thread loadInBackground(ProgressListener listener) {
+        Thread thread = new Thread(() -> load(listener), "sales-history-loader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
+        return thread;
+    }
+
+    public int load(ProgressListener listener) {
+        long start = System.currentTimeMillis();
+        int[] loaded = {0};
+        int[] conflicts = {0};
+
+        int total = orderDAO.streamSalesHistory((order, payment) -> {
+            Order current = salesData.getOrder(order.getOrderId());
+            if (current == null) {
+                salesData.recordSale(payment, order);
+                if ("Cancelled".equals(order.getStatus())) {
+                    salesData.cancelOrder(order.getOrderId());
+                }
+            } else if (!isSameSale(current, order)) {
+                // Same ID, different sale: keep the one rung up since startup, but say so
+                conflicts[0]++;
+                System.err.println("⚠️ Stored order " + order.getOrderId() + " (" + order.getOrderTime()
+                    + ") has the same ID as a sale made since startup (" + current.getOrderTime() + "), not loaded");
+            }
+            if (++loaded[0] % PROGRESS_INTERVAL == 0 && listener != null) {
+                listener.onProgress(loaded[0]);
+            }
+        });
+
+        System.out.println("✅ Loaded " + total + " past sales in " + (System.currentTimeMillis() - start) + "ms");
+        if (conflicts[0] > 0) {
+            System.err.println("⚠️ " + conflicts[0] + " stored sales share an order ID with a newer sale");
+        }
+        if (listener != null) {
+            listener.onComplete(total);
+        }
+        return total;
+    }
+
+    // A sale saved since startup comes back with the same order time (whole seconds in MySQL)
+    private static boolean isSameSale(Order current, Order stored) {
+        return current.getOrderTime().withNano(0).equals(stored.getOrderTime().withNano(0));
+    }
+}
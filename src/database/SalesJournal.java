@@ -0,0 +1,281 @@
+package database;
+
+import model.MenuItem;
+import model.Order;
+import model.OrderItem;
+import model.Payment;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of completed sales
+ * - Every sale is appended before it is queued for MySQL and marked once it is saved
+ * - Sales not marked as saved are replayed by SalesPersistenceQueue, on the next start or
+ *   once MySQL is reachable again. If a replayed order ID is already stored (MySQL error
+ *   1062) the stored row is compared with the sale: the same sale (order time, payment ID,
+ *   amount) is marked saved and skipped, a different one is a conflict and stays here
+ * - Record layout: [int length][long crc32][payload]. The length is written last,
+ *   so a record torn by a crash reads as end-of-journal
+ */
+public class SalesJournal {
+    private static final byte SALE = 1;
+    private static final byte PERSISTED = 2;
+    private static final int HEADER_SIZE = 12;
+    private static final int GROWTH_BYTES = 1 << 20; // remap in 1 MB steps
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private final Set<String> pendingIds = new LinkedHashSet<>();
+
+    public SalesJournal(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create journal directory: " + dir);
+        }
+        this.file = file;
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+        map(Math.max(GROWTH_BYTES, roundUp(channel.size())));
+        recover();
+    }
+
+    private void map(long size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static long roundUp(long size) {
+        return ((size + GROWTH_BYTES - 1) / GROWTH_BYTES) * GROWTH_BYTES;
+    }
+
+    // Find the end of the journal and rebuild the set of unsaved order IDs
+    private void recover() {
+        position = 0;
+        pendingIds.clear();
+        for (byte[] payload : readRecords()) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                byte type = in.readByte();
+                if (type == SALE) {
+                    pendingIds.add(in.readUTF());
+                } else if (type == PERSISTED) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        pendingIds.remove(in.readUTF());
+                    }
+                }
+            } catch (IOException e) {
+                // Unreadable payload behind a valid checksum - ignore the record
+            }
+        }
+    }
+
+    // Read every intact record from the start; leaves position at the end of the last one
+    private List<byte[]> readRecords() {
+        List<byte[]> records = new ArrayList<>();
+        int pos = 0;
+        CRC32 crc = new CRC32();
+        while (pos + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            long checksum = buffer.getLong(pos + 4);
+            byte[] payload = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(pos + HEADER_SIZE);
+            view.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                break;
+            }
+            records.add(payload);
+            pos += HEADER_SIZE + length;
+        }
+        position = pos;
+        return records;
+    }
+
+    private void append(byte[] payload) throws IOException {
+        int needed = position + HEADER_SIZE + payload.length;
+        if (needed > buffer.capacity()) {
+            map(roundUp(needed + (long) GROWTH_BYTES));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.putLong(position + 4, crc.getValue());
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + HEADER_SIZE);
+        view.put(payload);
+        buffer.putInt(position, payload.length); // commit point
+        position = needed;
+    }
+
+    /**
+     * Record a completed sale (called on checkout, before it is queued)
+     */
+    public synchronized void appendSale(Order order, Payment payment) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SALE);
+            out.writeUTF(order.getOrderId());
+            out.writeUTF(order.getOrderTime().toString());
+            out.writeDouble(order.getDiscountPercent());
+            out.writeUTF(order.getStatus());
+
+            List<OrderItem> items = order.getItems();
+            out.writeInt(items.size());
+            for (OrderItem item : items) {
+                MenuItem menuItem = item.getMenuItem();
+                out.writeUTF(menuItem.getId());
+                out.writeUTF(menuItem.getName());
+                out.writeUTF(menuItem.getCategory());
+                out.writeDouble(menuItem.getPrice());
+                out.writeInt(item.getQuantity());
+            }
+
+            out.writeUTF(payment.getPaymentId());
+            out.writeDouble(payment.getAmount());
+            out.writeUTF(payment.getMethod().name());
+            out.writeUTF(payment.getPaymentTime().toString());
+            out.writeDouble(payment.getReceivedAmount());
+        }
+        append(bytes.toByteArray());
+        pendingIds.add(order.getOrderId());
+    }
+
+    /**
+     * Record that these orders are now stored in MySQL
+     */
+    public synchronized void markPersisted(Collection<String> orderIds) throws IOException {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + orderIds.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PERSISTED);
+            out.writeInt(orderIds.size());
+            for (String orderId : orderIds) {
+                out.writeUTF(orderId);
+            }
+        }
+        append(bytes.toByteArray());
+        pendingIds.removeAll(orderIds);
+    }
+
+    /**
+     * Load the sales that have not been marked as saved, oldest first
+     */
+    synchronized List<PendingSale> readPending() {
+        Map<String, PendingSale> sales = new LinkedHashMap<>();
+        int end = position;
+        for (byte[] payload : readRecords()) {
+            if (payload[0] != SALE) {
+                continue;
+            }
+            try {
+                PendingSale sale = decodeSale(payload);
+                if (pendingIds.contains(sale.order.getOrderId())) {
+                    sales.put(sale.order.getOrderId(), sale);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️ Skipping unreadable journal record: " + e.getMessage());
+            }
+        }
+        position = end;
+        return new ArrayList<>(sales.values());
+    }
+
+    private static PendingSale decodeSale(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            in.readByte(); // SALE
+            Order order = new Order(in.readUTF(), LocalDateTime.parse(in.readUTF()));
+            order.setDiscountPercent(in.readDouble());
+            order.setStatus(in.readUTF());
+
+            int itemCount = in.readInt();
+            for (int i = 0; i < itemCount; i++) {
+                MenuItem menuItem = new MenuItem(in.readUTF(), in.readUTF(), in.readUTF(), in.readDouble(), "");
+                order.addItem(menuItem, in.readInt());
+            }
+
+            String paymentId = in.readUTF();
+            double amount = in.readDouble();
+            Payment.PaymentMethod method = Payment.PaymentMethod.valueOf(in.readUTF());
+            Payment payment = new Payment(paymentId, order.getOrderId(), amount, method, LocalDateTime.parse(in.readUTF()));
+            double received = in.readDouble();
+            if (method == Payment.PaymentMethod.CASH && received > 0) {
+                payment.processCashPayment(received);
+            }
+            return new PendingSale(order, payment);
+        }
+    }
+
+    /**
+     * Start over from an empty journal once every sale in it is saved.
+     * The used region is zeroed so old records can never be read back.
+     */
+    public synchronized boolean resetIfDrained() {
+        if (!pendingIds.isEmpty() || position == 0) {
+            return false;
+        }
+        for (int i = 0; i < position; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        position = 0;
+        return true;
+    }
+
+    // Flush mapped pages to disk (protects against power loss, not only process crashes)
+    public synchronized void sync() {
+        buffer.force();
+    }
+
+    /**
+     * Order IDs of the journaled sales that are not in the database yet
+     */
+    public synchronized List<String> getPendingOrderIds() {
+        return new ArrayList<>(pendingIds);
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingIds.size();
+    }
+
+    public synchronized int getSizeBytes() {
+        return position;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+            raf.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package database;
+
+import model.Order;
+import model.Payment;
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind queue for completed sales
+ * - submit() returns immediately; a background thread writes sales to MySQL in batches
+ * - Failed batches are retried with exponential backoff until they succeed
+ * - Every sale is first appended to a local SalesJournal, so sales made while MySQL is
+ *   down survive a restart and are replayed in the background once it is back; a
+ *   reconnect wakes the worker from its backoff instead of waiting it out
+ * - The queue is bounded: when it is full, journaled sales stay on disk until the queue
+ *   drains; without a journal submit() returns false so the caller can fall back
+ * - Status changes (cancellations) go through the same worker and are written once the
+ *   order's own sale is in the database, so they cannot overtake it
+ */
+public class SalesPersistenceQueue {
+    private static final int CAPACITY = 1000;
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final long OFFER_TIMEOUT_MILLIS = 50;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+    private static final String JOURNAL_PATH = "data/sales.journal";
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    private static SalesPersistenceQueue instance;
+
+    private final BlockingQueue<PendingSale> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final ExecutorService executor;
+    private final OrderDAO orderDAO;
+    private final SalesJournal journal; // null if the journal file could not be opened
+    private final Deque<PendingSale> replayBacklog = new ArrayDeque<>(); // worker thread only
+    private final Queue<PendingStatusUpdate> statusUpdates = new ConcurrentLinkedQueue<>();
+    private volatile boolean replayNeeded;
+    private final Semaphore wakeUp = new Semaphore(0); // cuts a retry backoff short
+
+    // Metrics
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong persistedCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private final AtomicLong conflictCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile String lastError;
+
+    private volatile boolean stopping;
+
+    private SalesPersistenceQueue() {
+        this.orderDAO = new OrderDAO();
+        this.journal = openJournal();
+        this.replayNeeded = journal != null && journal.getPendingCount() > 0;
+        if (replayNeeded) {
+            System.out.println("ℹ️ " + journal.getPendingCount() + " unsaved sales found in journal, replaying in background");
+        }
+        DatabaseManager.getInstance().addReconnectListener(this::onReconnect);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "sales-persistence");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(this::runWorker);
+    }
+
+    private static SalesJournal openJournal() {
+        try {
+            return new SalesJournal(new File(JOURNAL_PATH));
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not open sales journal, offline sales will not survive a restart: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // MySQL is back: replay whatever the journal still holds and retry now
+    private void onReconnect() {
+        if (journal != null && journal.getPendingCount() > 0) {
+            replayNeeded = true;
+        }
+        wakeUp.release();
+    }
+
+    public static synchronized SalesPersistenceQueue getInstance() {
+        if (instance == null) {
+            instance = new SalesPersistenceQueue();
+        }
+        return instance;
+    }
+
+    /**
+     * Journal a completed sale and queue it for persistence.
+     * Returns false when the sale could be neither journaled nor queued.
+     */
+    public boolean submit(Order order, Payment payment) {
+        if (stopping) {
+            return false;
+        }
+        boolean journaled = false;
+        if (journal != null) {
+            try {
+                journal.appendSale(order, payment);
+                journaled = true;
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to journal order " + order.getOrderId() + ": " + e.getMessage());
+            }
+        }
+        try {
+            if (queue.offer(new PendingSale(order, payment), OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                submittedCount.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journaled) {
+            // Safe on disk; the worker picks it up from the journal once the queue drains
+            replayNeeded = true;
+            submittedCount.incrementAndGet();
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        System.err.println("⚠️ Sales persistence queue is full (" + CAPACITY + "), order " + order.getOrderId() + " not queued");
+        return false;
+    }
+
+    /**
+     * Queue a status change for an order, written after the order itself has been saved.
+     * Returns false once the queue is shutting down.
+     */
+    public boolean submitStatusUpdate(String orderId, String status) {
+        if (stopping) {
+            return false;
+        }
+        statusUpdates.add(new PendingStatusUpdate(orderId, status));
+        return true;
+    }
+
+    private void runWorker() {
+        List<PendingSale> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        long backoff = INITIAL_BACKOFF_MILLIS;
+
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    fillBatch(batch);
+                    if (batch.isEmpty()) {
+                        // No sales to write: apply status changes for orders that are saved
+                        if (!applyStatusUpdates()) {
+                            retryCount.incrementAndGet();
+                            if (stopping) {
+                                System.err.println("⚠️ Stopped with " + statusUpdates.size() + " unsaved status changes: " + lastError);
+                                return;
+                            }
+                            pause(backoff);
+                            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                            continue;
+                        }
+                        backoff = INITIAL_BACKOFF_MILLIS;
+                        if (stopping) {
+                            if (!statusUpdates.isEmpty()) {
+                                System.err.println("⚠️ Stopped with " + statusUpdates.size() + " status changes for unsaved orders");
+                            }
+                            return;
+                        }
+                        continue;
+                    }
+                    inFlight.set(batch.size());
+                    if (journal != null) {
+                        journal.sync();
+                    }
+                }
+
+                if (flush(batch)) {
+                    inFlight.set(0);
+                    backoff = INITIAL_BACKOFF_MILLIS;
+                    continue;
+                }
+
+                // Keep the batch (and everything behind it) in order and try again later
+                inFlight.set(batch.size());
+                retryCount.incrementAndGet();
+                if (stopping) {
+                    System.err.println("⚠️ Stopped with " + (batch.size() + queue.size()) + " unsaved sales: " + lastError);
+                    return;
+                }
+                pause(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Wait out a retry backoff, or less if a reconnect or shutdown wakes us
+    private void pause(long millis) throws InterruptedException {
+        wakeUp.tryAcquire(millis, TimeUnit.MILLISECONDS);
+        wakeUp.drainPermits();
+    }
+
+    // Take replayed sales first, then whatever is queued
+    private void fillBatch(List<PendingSale> batch) throws InterruptedException {
+        if (replayNeeded && replayBacklog.isEmpty() && queue.isEmpty()) {
+            // Reading the whole journal only when nothing else is queued means every
+            // pending sale in it is one that has not been handed to us in memory
+            replayNeeded = false;
+            replayBacklog.addAll(journal.readPending());
+        }
+        while (!replayBacklog.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+            batch.add(replayBacklog.pollFirst());
+        }
+        if (batch.isEmpty()) {
+            PendingSale first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+        }
+        queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+    }
+    
+    /**
+     * Write the batch in one transaction. If an order ID is already in the database
+     * fall back to one sale at a time: a stored copy of the same sale (e.g. a retry after
+     * a lost commit acknowledgement) is skipped, a different sale under that ID is a
+     * conflict and stays in the journal. Handled sales are removed from the batch.
+     */
+    private boolean flush(List<PendingSale> batch) {
+        try {
+            write(batch);
+            persistedCount.addAndGet(batch.size());
+            markPersisted(batch);
+            batch.clear();
+            return true;
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                lastError = e.getMessage();
+                return false;
+            }
+        }
+
+        Iterator<PendingSale> it = batch.iterator();
+        while (it.hasNext()) {
+            PendingSale sale = it.next();
+            try {
+                write(Collections.singletonList(sale));
+                persistedCount.incrementAndGet();
+            } catch (SQLException e) {
+                if (!isDuplicateKey(e)) {
+                    lastError = e.getMessage();
+                    return false;
+                }
+                try {
+                    if (!orderDAO.isSaleStored(sale.order, sale.payment)) {
+                        conflictCount.incrementAndGet();
+                        lastError = "Order ID " + sale.order.getOrderId() + " is used by a different stored sale";
+                        System.err.println("❌ Order " + sale.order.getOrderId() + " clashes with a different stored sale, "
+                            + (journal != null ? "kept in " + journal.getFile() : "not saved"));
+                        it.remove(); // not marked persisted, so it stays in the journal
+                        continue;
+                    }
+                } catch (SQLException checkError) {
+                    lastError = checkError.getMessage();
+                    return false;
+                }
+                duplicateCount.incrementAndGet();
+                System.err.println("⚠️ Order " + sale.order.getOrderId() + " already saved, skipping");
+            }
+            markPersisted(Collections.singletonList(sale));
+            it.remove();
+        }
+        return true;
+    }
+    
+    /**
+     * Write the queued status changes whose orders are no longer waiting to be saved.
+     * Returns false if the database failed; the remaining changes are kept.
+     */
+    private boolean applyStatusUpdates() {
+        if (statusUpdates.isEmpty() || replayNeeded) {
+            return true;
+        }
+        Set<String> unsaved = getPendingOrderIds();
+        Iterator<PendingStatusUpdate> it = statusUpdates.iterator();
+        while (it.hasNext()) {
+            PendingStatusUpdate update = it.next();
+            if (unsaved.contains(update.orderId)) {
+                continue; // its sale has not been written yet
+            }
+            try {
+                if (orderDAO.setOrderStatus(update.orderId, update.status) == 0) {
+                    System.err.println("⚠️ Order " + update.orderId + " not found, status '" + update.status + "' not saved");
+                }
+            } catch (SQLException e) {
+                lastError = e.getMessage();
+                return false;
+            }
+            it.remove();
+        }
+        return true;
+    }
+
+    private void markPersisted(List<PendingSale> sales) {
+        if (journal == null) {
+            return;
+        }
+        List<String> orderIds = new ArrayList<>(sales.size());
+        for (PendingSale sale : sales) {
+            orderIds.add(sale.order.getOrderId());
+        }
+        try {
+            journal.markPersisted(orderIds);
+            if (queue.isEmpty() && replayBacklog.isEmpty()) {
+                journal.resetIfDrained();
+            }
+        } catch (IOException e) {
+            // Worst case the sales are replayed again and skipped as duplicates
+            System.err.println("⚠️ Failed to update sales journal: " + e.getMessage());
+        }
+    }
+
+    private void write(List<PendingSale> sales) throws SQLException {
+        List<Order> orders = new ArrayList<>(sales.size());
+        List<Payment> payments = new ArrayList<>(sales.size());
+        for (PendingSale sale : sales) {
+            orders.add(sale.order);
+            payments.add(sale.payment);
+        }
+        orderDAO.insertSales(orders, payments);
+    }
+
+    // MySQL error 1062 (ER_DUP_ENTRY); other integrity errors (e.g. a NULL column) are real failures
+    private static boolean isDuplicateKey(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException && ((SQLException) t).getErrorCode() == MYSQL_DUPLICATE_ENTRY) {
+                return true;
+            }
+        }
+        SQLException next = e.getNextException();
+        return next != null && next != e && isDuplicateKey(next);
+    }
+
+    /**
+     * Stop accepting sales and wait up to timeoutMillis for the backlog to be written
+     */
+    public void shutdown(long timeoutMillis) {
+        stopping = true;
+        wakeUp.release();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        int unsaved = journal != null ? journal.getPendingCount() : getPendingCount();
+        if (unsaved > 0) {
+            System.err.println("⚠️ " + unsaved + " sales were not saved to the database"
+                + (journal != null ? " (kept in " + journal.getFile() + " for the next start)" : ""));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Order IDs of submitted sales that are not in the database yet (journaled or queued)
+     */
+    public Set<String> getPendingOrderIds() {
+        Set<String> orderIds = new HashSet<>();
+        if (journal != null) {
+            orderIds.addAll(journal.getPendingOrderIds());
+        }
+        for (PendingSale sale : queue) {
+            orderIds.add(sale.order.getOrderId());
+        }
+        return orderIds;
+    }
+
+    // Metrics
+    public int getQueueDepth() { return queue.size(); }
+    public int getJournalPendingCount() { return journal != null ? journal.getPendingCount() : 0; }
+    public int getInFlightCount() { return inFlight.get(); }
+    public int getPendingCount() { return queue.size() + inFlight.get(); }
+    public int getRemainingCapacity() { return queue.remainingCapacity(); }
+    public long getSubmittedCount() { return submittedCount.get(); }
+    public long getPersistedCount() { return persistedCount.get(); }
+    public long getDuplicateCount() { return duplicateCount.get(); }
+    public long getConflictCount() { return conflictCount.get(); }
+    public long getRetryCount() { return retryCount.get(); }
+    public long getRejectedCount() { return rejectedCount.get(); }
+    public String getLastError() { return lastError; }
+
+    @Override
+    public String toString() {
+        return "SalesPersistenceQueue[depth=" + getQueueDepth() + ", inFlight=" + getInFlightCount()
+            + ", persisted=" + getPersistedCount() + ", retries=" + getRetryCount()
+            + ", rejected=" + getRejectedCount() + ", conflicts=" + getConflictCount() + "]";
+    }
+}
@@ -24,6 +24,9 @@ public class Member {
     public static final double LEVEL_2_DISCOUNT = 15.0; // 15%
     public static final double LEVEL_1_DISCOUNT = 20.0; // 20%
     
+    // Characters allowed in a phone number besides digits (same as MemberDAO's phone_digits)
+    private static final String PHONE_SEPARATORS = "-.()+ ";
+    
     public Member(String phoneNumber, String name, double totalSpent) {
         this.phoneNumber = phoneNumber;
         this.name = name;
@@ -53,6 +56,34 @@ public class Member {
         }
     }
     
+    /**
+     * Digits of a phone number ("010-1234-5678" -> "01012345678")
+     */
+    public static String normalizePhone(String phoneNumber) {
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+    
+    /**
+     * Digits of a search term if it looks like (part of) a phone number, i.e. only digits
+     * and the separators - . ( ) + and space; otherwise "" (a name search)
+     */
+    public static String phoneSearchDigits(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if ((c < '0' || c > '9') && PHONE_SEPARATORS.indexOf(c) < 0) {
+                return "";
+            }
+        }
+        return normalizePhone(term);
+    }
+    
     /**
      * Add amount to total spent and recalculate level
      */
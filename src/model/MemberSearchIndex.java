@@ -0,0 +1,302 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory search index over members for typeahead searching
+ * - Matches like MemberDAO.searchMembers: the name starts with the query, or (for a query
+ *   of digits and phone separators) the phone digits start or end with the query's digits
+ * - Name: sorted array of lower-case names, so "starts with" is a binary search plus a
+ *   range scan; members added since the last rebuild are kept in a small sorted map until
+ *   the next compaction
+ * - Phone: trigram index over the digits (int posting lists), so 3+ digits, e.g. the last
+ *   four, are found without scanning every member; 1-2 digits scan the digits
+ * - Results are copies, ordered like the member table (total spent, highest first); a
+ *   longer name query can be answered by filtering the result of the shorter one (refine)
+ * - Removed members are only marked; they are dropped when too many have piled up
+ */
+public class MemberSearchIndex {
+    private static final int GRAM = 3;
+    private static final int GRAM_COUNT = 1000; // "000" .. "999"
+    private static final char TOKEN_SEPARATOR = '\u0000';
+    private static final int MIN_COMPACT_THRESHOLD = 1024;
+
+    /**
+     * The member table's order: total spent (highest first), then phone number
+     */
+    public static final Comparator<Member> TABLE_ORDER =
+        Comparator.comparingDouble(Member::getTotalSpent).reversed().thenComparing(Member::getPhoneNumber);
+
+    private final Map<String, Entry> members = new HashMap<>(); // phone -> live entry
+    private final List<Entry> slots = new ArrayList<>();        // slot -> entry, removed ones included
+    private int removedCount;
+
+    private int[][] gramPostings = new int[GRAM_COUNT][];       // trigram -> slots
+    private int[] gramSizes = new int[GRAM_COUNT];
+
+    private String[] tokens = new String[0];                    // sorted lower-case names
+    private int[] tokenSlots = new int[0];
+    private final NavigableMap<String, Entry> recentTokens = new TreeMap<>(); // token + slot, added since compaction
+
+    private boolean loaded;
+
+    /**
+     * Replace the contents with these members
+     */
+    public synchronized void rebuild(Collection<Member> all) {
+        List<Entry> entries = new ArrayList<>(all.size());
+        for (Member member : all) {
+            // Own copy, so changes to the caller's object do not bypass the index
+            entries.add(new Entry(new Member(member.getPhoneNumber(), member.getName(), member.getTotalSpent())));
+        }
+        reindex(entries);
+        loaded = true;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return members.size();
+    }
+
+    /**
+     * Add a member, or re-index it after its name or total changed
+     */
+    public synchronized void put(Member member) {
+        removeEntry(member.getPhoneNumber());
+        Entry entry = new Entry(new Member(member.getPhoneNumber(), member.getName(), member.getTotalSpent()));
+        addEntry(entry);
+        recentTokens.put(entry.nameKey + TOKEN_SEPARATOR + entry.slot, entry);
+        compactIfNeeded();
+    }
+
+    public synchronized void remove(String phoneNumber) {
+        removeEntry(phoneNumber);
+        compactIfNeeded();
+    }
+
+    private void removeEntry(String phoneNumber) {
+        Entry entry = members.remove(phoneNumber);
+        if (entry != null) {
+            entry.removed = true;
+            removedCount++;
+        }
+    }
+
+    private void addEntry(Entry entry) {
+        entry.slot = slots.size();
+        entry.removed = false;
+        slots.add(entry);
+        Entry previous = members.put(entry.member.getPhoneNumber(), entry);
+        if (previous != null) {
+            previous.removed = true; // same phone listed twice; the later one wins
+            removedCount++;
+        }
+        String digits = entry.digits;
+        for (int i = 0; i + GRAM <= digits.length(); i++) {
+            int gram = gram(digits, i);
+            int size = gramSizes[gram];
+            int[] posting = gramPostings[gram];
+            if (size > 0 && posting[size - 1] == entry.slot) {
+                continue; // same trigram twice in one number
+            }
+            if (posting == null) {
+                posting = gramPostings[gram] = new int[16];
+            } else if (size == posting.length) {
+                posting = gramPostings[gram] = Arrays.copyOf(posting, size * 2);
+            }
+            posting[size] = entry.slot;
+            gramSizes[gram] = size + 1;
+        }
+    }
+
+    private void compactIfNeeded() {
+        int threshold = Math.max(MIN_COMPACT_THRESHOLD, members.size() / 4);
+        if (removedCount > threshold || recentTokens.size() > threshold) {
+            List<Entry> live = new ArrayList<>(members.size());
+            for (Entry entry : slots) {
+                if (!entry.removed) {
+                    live.add(entry);
+                }
+            }
+            reindex(live);
+        }
+    }
+
+    // Rebuild every structure from these entries (new slots, no removed or recent entries)
+    private void reindex(List<Entry> entries) {
+        members.clear();
+        slots.clear();
+        removedCount = 0;
+        gramPostings = new int[GRAM_COUNT][];
+        gramSizes = new int[GRAM_COUNT];
+        recentTokens.clear();
+
+        List<TokenRef> refs = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            addEntry(entry);
+            refs.add(new TokenRef(entry.nameKey, entry.slot));
+        }
+        refs.sort((a, b) -> a.token.compareTo(b.token));
+        tokens = new String[refs.size()];
+        tokenSlots = new int[refs.size()];
+        for (int i = 0; i < refs.size(); i++) {
+            tokens[i] = refs.get(i).token;
+            tokenSlots[i] = refs.get(i).slot;
+        }
+    }
+
+    /**
+     * Members whose name starts with the query, or whose phone digits start or end with
+     * the query's digits; an empty query returns every member
+     */
+    public synchronized List<Member> search(String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        Set<Entry> found = new LinkedHashSet<>();
+
+        if (lower.isEmpty()) {
+            found.addAll(members.values());
+        } else {
+            for (int i = firstTokenAtOrAfter(lower); i < tokens.length && tokens[i].startsWith(lower); i++) {
+                Entry entry = slots.get(tokenSlots[i]);
+                if (!entry.removed) {
+                    found.add(entry);
+                }
+            }
+            for (Entry entry : recentTokens.subMap(lower, true, lower + Character.MAX_VALUE, true).values()) {
+                if (!entry.removed) {
+                    found.add(entry);
+                }
+            }
+            String digits = Member.phoneSearchDigits(query);
+            if (!digits.isEmpty()) {
+                addPhoneMatches(digits, found);
+            }
+        }
+
+        List<Member> result = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            result.add(copy(entry.member));
+        }
+        result.sort(TABLE_ORDER);
+        return result;
+    }
+
+    /**
+     * Narrow the result of an earlier query to a longer query that starts with it,
+     * keeping its order (every name match of the longer query also matched the shorter one).
+     * Phone queries are searched again: a number ending in "1234" does not end in "123".
+     */
+    public synchronized List<Member> refine(List<Member> previous, String query) {
+        String digits = Member.phoneSearchDigits(query);
+        if (!digits.isEmpty()) {
+            return search(query);
+        }
+        String lower = query.toLowerCase(Locale.ROOT);
+        List<Member> result = new ArrayList<>();
+        for (Member member : previous) {
+            Entry entry = members.get(member.getPhoneNumber());
+            if (entry != null && entry.matches(lower, digits)) {
+                result.add(copy(entry.member));
+            }
+        }
+        return result;
+    }
+
+    // Callers get their own object, so changing it does not bypass the index
+    private static Member copy(Member member) {
+        return new Member(member.getPhoneNumber(), member.getName(), member.getTotalSpent());
+    }
+
+    private int firstTokenAtOrAfter(String key) {
+        int low = 0;
+        int high = tokens.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Scan the shortest posting list of the query's trigrams (or every member for 1-2 digits)
+    private void addPhoneMatches(String digits, Set<Entry> found) {
+        if (digits.length() < GRAM) {
+            for (Entry entry : members.values()) {
+                if (entry.matchesPhone(digits)) {
+                    found.add(entry);
+                }
+            }
+            return;
+        }
+        int best = -1;
+        for (int i = 0; i + GRAM <= digits.length(); i++) {
+            int gram = gram(digits, i);
+            if (best < 0 || gramSizes[gram] < gramSizes[best]) {
+                best = gram;
+            }
+        }
+        int[] posting = gramPostings[best];
+        for (int i = 0; i < gramSizes[best]; i++) {
+            Entry entry = slots.get(posting[i]);
+            if (!entry.removed && entry.matchesPhone(digits)) {
+                found.add(entry);
+            }
+        }
+    }
+
+    private static int gram(String digits, int start) {
+        return (digits.charAt(start) - '0') * 100 + (digits.charAt(start + 1) - '0') * 10 + (digits.charAt(start + 2) - '0');
+    }
+
+    /**
+     * An indexed member with the name and digits it is indexed under
+     */
+    private static class Entry {
+        private final Member member;
+        private final String nameKey; // lower-case name
+        private final String digits;
+        private int slot;
+        private boolean removed;
+
+        Entry(Member member) {
+            this.member = member;
+            this.nameKey = member.getName() == null ? "" : member.getName().toLowerCase(Locale.ROOT);
+            this.digits = Member.normalizePhone(member.getPhoneNumber());
+        }
+
+        boolean matches(String lower, String queryDigits) {
+            return nameKey.startsWith(lower) || (!queryDigits.isEmpty() && matchesPhone(queryDigits));
+        }
+
+        boolean matchesPhone(String queryDigits) {
+            return digits.startsWith(queryDigits) || digits.endsWith(queryDigits);
+        }
+    }
+
+    private static class TokenRef {
+        private final String token;
+        private final int slot;
+
+        TokenRef(String token, int slot) {
+            this.token = token;
+            this.slot = slot;
+        }
+    }
+}
@@ -2,23 +2,32 @@ package model;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Model class for managing all menu items
+ * - Indexes by ID and by category, plus the sorted set of categories; all are kept up
+ *   to date by add / update / remove
+ * - New IDs come from a counter that only moves forward, so a deleted item's ID is not reused
  */
 public class MenuManager {
-    private Map<String, MenuItem> menuItems;
+    private Map<String, IndexedItem> menuItems;
+    private Map<String, Map<String, MenuItem>> itemsByCategory; // category -> ID -> item
+    private NavigableMap<String, Integer> categoryCounts;       // sorted categories
     private int nextId;
-    
+
     public MenuManager() {
         this.menuItems = new HashMap<>();
+        this.itemsByCategory = new HashMap<>();
+        this.categoryCounts = new TreeMap<>();
         this.nextId = 1;
         initializeSampleMenu();
     }
-    
+
     private void initializeSampleMenu() {
         // Add some sample menu items
         addMenuItem(new MenuItem("M001", "Americano", "Coffee", 3.50, "Classic espresso with hot water"));
@@ -28,60 +37,119 @@ public class MenuManager {
         addMenuItem(new MenuItem("M005", "Chocolate Cake", "Dessert", 5.50, "Rich chocolate cake slice"));
         addMenuItem(new MenuItem("M006", "Croissant", "Dessert", 3.50, "Butter croissant"));
     }
-    
+
     public void addMenuItem(MenuItem item) {
-        menuItems.put(item.getId(), item);
+        IndexedItem previous = menuItems.get(item.getId());
+        if (previous != null) {
+            unindex(previous);
+        }
+        IndexedItem entry = new IndexedItem(item);
+        menuItems.put(item.getId(), entry);
+        index(entry);
+        reserveId(item.getId());
     }
-    
+
+    /**
+     * Re-index an item after its name or category was changed in place
+     */
+    public void updateMenuItem(MenuItem item) {
+        if (menuItems.containsKey(item.getId())) {
+            addMenuItem(item);
+        }
+    }
+
     public void removeMenuItem(String id) {
-        menuItems.remove(id);
+        IndexedItem entry = menuItems.remove(id);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+
+    /**
+     * Remove every item (e.g. before loading the menu from the database).
+     * The ID counter is kept, so IDs handed out before are not reused.
+     */
+    public void clear() {
+        menuItems.clear();
+        itemsByCategory.clear();
+        categoryCounts.clear();
+    }
+
+    private void index(IndexedItem entry) {
+        itemsByCategory.computeIfAbsent(entry.category, k -> new LinkedHashMap<>()).put(entry.item.getId(), entry.item);
+        categoryCounts.merge(entry.category, 1, Integer::sum);
     }
-    
+
+    // Uses the name and category the item had when it was indexed
+    private void unindex(IndexedItem entry) {
+        Map<String, MenuItem> category = itemsByCategory.get(entry.category);
+        if (category != null) {
+            category.remove(entry.item.getId());
+            if (category.isEmpty()) {
+                itemsByCategory.remove(entry.category);
+            }
+        }
+        categoryCounts.computeIfPresent(entry.category, (k, count) -> count == 1 ? null : count - 1);
+    }
+
     public MenuItem getMenuItem(String id) {
-        return menuItems.get(id);
+        IndexedItem entry = menuItems.get(id);
+        return entry != null ? entry.item : null;
     }
-    
+
     public List<MenuItem> getAllMenuItems() {
-        return new ArrayList<>(menuItems.values());
+        List<MenuItem> items = new ArrayList<>(menuItems.size());
+        for (IndexedItem entry : menuItems.values()) {
+            items.add(entry.item);
+        }
+        return items;
     }
-    
+
     public List<MenuItem> getMenuItemsByCategory(String category) {
-        return menuItems.values().stream()
-                       .filter(item -> item.getCategory().equals(category))
-                       .collect(Collectors.toList());
+        Map<String, MenuItem> items = itemsByCategory.get(category);
+        return items != null ? new ArrayList<>(items.values()) : new ArrayList<>();
     }
-    
+
     public List<String> getAllCategories() {
-        return menuItems.values().stream()
-                       .map(MenuItem::getCategory)
-                       .distinct()
-                       .sorted()
-                       .collect(Collectors.toList());
+        return new ArrayList<>(categoryCounts.keySet());
     }
-    
+
     public String generateNewId() {
-        // Find the maximum ID number from existing items
-        int maxId = 0;
-        for (String id : menuItems.keySet()) {
-            if (id.startsWith("M")) {
-                try {
-                    int num = Integer.parseInt(id.substring(1));
-                    if (num > maxId) {
-                        maxId = num;
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip if ID format is unexpected
+        String id;
+        do {
+            id = String.format("M%03d", nextId++);
+        } while (menuItems.containsKey(id));
+        return id;
+    }
+
+    // Keep the counter ahead of every "M<number>" ID seen
+    private void reserveId(String id) {
+        if (id.startsWith("M")) {
+            try {
+                int num = Integer.parseInt(id.substring(1));
+                if (num >= nextId) {
+                    nextId = num + 1;
                 }
+            } catch (NumberFormatException e) {
+                // Skip if ID format is unexpected
             }
         }
-        
-        // Generate new ID that's greater than any existing ID
-        nextId = maxId + 1;
-        return String.format("M%03d", nextId++);
     }
-    
+
     public boolean menuItemExists(String id) {
         return menuItems.containsKey(id);
     }
-}
 
+    /**
+     * An item with the category it is currently indexed under
+     */
+    private static class IndexedItem {
+        private final MenuItem item;
+        private final String category;
+
+        IndexedItem(MenuItem item) {
+            this.item = item;
+            this.category = item.getCategory();
+        }
+    }
+}
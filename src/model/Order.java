@@ -12,12 +12,18 @@ public class Order {
     private List<OrderItem> items;
     private LocalDateTime orderTime;
     private double discountPercent;
+    private double storedSubtotal; // subtotal of an order rebuilt without its items (summary import)
     private String status; // "Pending", "Completed", "Cancelled"
     
     public Order(String orderId) {
+        this(orderId, LocalDateTime.now());
+    }
+    
+    // Rebuild a past order (journal replay, database load)
+    public Order(String orderId, LocalDateTime orderTime) {
         this.orderId = orderId;
         this.items = new ArrayList<>();
-        this.orderTime = LocalDateTime.now();
+        this.orderTime = orderTime;
         this.discountPercent = 0.0;
         this.status = "Pending";
     }
@@ -39,6 +45,9 @@ public class Order {
     }
     
     public double getSubtotal() {
+        if (items.isEmpty()) {
+            return storedSubtotal;
+        }
         return items.stream()
                    .mapToDouble(OrderItem::getSubtotal)
                    .sum();
@@ -68,6 +77,9 @@ public class Order {
     
     public void setStatus(String status) { this.status = status; }
     
+    // Orders imported from a sales summary have no items; keep the subtotal that was exported
+    public void setStoredSubtotal(double storedSubtotal) { this.storedSubtotal = storedSubtotal; }
+    
     public void clear() {
         items.clear();
     }
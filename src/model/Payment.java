@@ -19,11 +19,16 @@ public class Payment {
     private double changeAmount;   // For cash payments
     
     public Payment(String paymentId, String orderId, double amount, PaymentMethod method) {
+        this(paymentId, orderId, amount, method, LocalDateTime.now());
+    }
+    
+    // Rebuild a past payment (journal replay, database load)
+    public Payment(String paymentId, String orderId, double amount, PaymentMethod method, LocalDateTime paymentTime) {
         this.paymentId = paymentId;
         this.orderId = orderId;
         this.amount = amount;
         this.method = method;
-        this.paymentTime = LocalDateTime.now();
+        this.paymentTime = paymentTime;
         this.receivedAmount = 0.0;
         this.changeAmount = 0.0;
     }
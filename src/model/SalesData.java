@@ -1,141 +1,183 @@
 package model;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+/**
+ * In-memory sales history, safe to share between registers and background threads
+ * - Primary index: order ID -> sale (order, payment, date, cancelled flag)
+ * - Secondary index: date -> partition of active payments in recording order, with
+ *   running revenue / order-count totals; running totals per month as well
+ * - Writes for one order are serialised by a lock stripe chosen from the order ID;
+ *   each day partition and month total has its own short lock, so sales for
+ *   different orders are recorded and cancelled in parallel
+ */
 public class SalesData {
-    private Map<LocalDate, List<Payment>> dailySales;
-    private List<Payment> cancelledPayments;
-    private Map<String, Order> allOrders; 
-    private Map<String, Integer> itemSalesCount;
-    
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, SaleRecord> salesByOrderId;
+    private final Map<LocalDate, DayPartition> dailySales;
+    private final Map<YearMonth, Totals> monthlyTotals;
+    private final LinkedHashMap<String, Payment> cancelledPayments; // guarded by itself
+    private final Map<String, Integer> itemSalesCount;
+    private final ReentrantLock[] orderLocks;
+
     public SalesData() {
-        this.dailySales = new HashMap<>();
-        this.cancelledPayments = new ArrayList<>();
-        this.allOrders = new HashMap<>();
-        this.itemSalesCount = new HashMap<>();
+        this.salesByOrderId = new ConcurrentHashMap<>();
+        this.dailySales = new ConcurrentHashMap<>();
+        this.monthlyTotals = new ConcurrentHashMap<>();
+        this.cancelledPayments = new LinkedHashMap<>();
+        this.itemSalesCount = new ConcurrentHashMap<>();
+        this.orderLocks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            orderLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private ReentrantLock lockFor(String orderId) {
+        return orderLocks[(orderId.hashCode() & 0x7fffffff) % LOCK_STRIPES];
     }
-    
+
     public void recordSale(Payment payment, Order order) {
-        LocalDate date = payment.getPaymentTime().toLocalDate();
-        dailySales.computeIfAbsent(date, k -> new ArrayList<>()).add(payment);
-        
-        allOrders.put(order.getOrderId(), order); 
-        
-        for (OrderItem item : order.getItems()) { 
-            String itemName = item.getMenuItem().getName(); 
-            itemSalesCount.put(itemName, 
-                itemSalesCount.getOrDefault(itemName, 0) + item.getQuantity()); 
+        String orderId = order.getOrderId();
+        ReentrantLock lock = lockFor(orderId);
+        lock.lock();
+        try {
+            // 같은 주문 ID로 다시 기록되면 이전 결제를 먼저 정리
+            SaleRecord previous = salesByOrderId.get(orderId);
+            if (previous != null) {
+                removeFromIndexes(previous);
+            }
+
+            LocalDate date = payment.getPaymentTime().toLocalDate();
+            salesByOrderId.put(orderId, new SaleRecord(order, payment, date));
+            dailySales.computeIfAbsent(date, k -> new DayPartition()).put(orderId, payment);
+            monthTotals(date).add(payment.getAmount(), 1);
+
+            for (OrderItem item : order.getItems()) {
+                itemSalesCount.merge(item.getMenuItem().getName(), item.getQuantity(), Integer::sum);
+            }
+        } finally {
+            lock.unlock();
         }
     }
-    
-    /**
-     * [수정] 주문 취소 로직 개선
-     * ID 기반으로 전체 dailySales를 순회하여 해당 Payment 객체를 확실하게 찾아서 이동시킴
-     */
-    public boolean cancelOrder(String orderId) {
-        if (!allOrders.containsKey(orderId)) return false;
-        
-        Order orderToRemove = allOrders.get(orderId);
-        orderToRemove.setStatus("Cancelled");
-        
-        // 1. Payment 찾기 및 이동 (전체 검색으로 변경하여 안정성 확보)
-        Payment paymentToRemove = null;
-        LocalDate foundDate = null;
-        
-        // 모든 날짜의 리스트를 검색
-        for (Map.Entry<LocalDate, List<Payment>> entry : dailySales.entrySet()) {
-            List<Payment> dailyList = entry.getValue();
-            for (Payment p : dailyList) {
-                if (p.getOrderId().equals(orderId)) {
-                    paymentToRemove = p;
-                    foundDate = entry.getKey();
-                    break;
-                }
+
+    private void removeFromIndexes(SaleRecord record) {
+        String orderId = record.order.getOrderId();
+        if (record.cancelled) {
+            synchronized (cancelledPayments) {
+                cancelledPayments.remove(orderId);
             }
-            if (paymentToRemove != null) break;
+            return;
+        }
+        removeFromDay(record.date, orderId);
+        subtractItems(record.order);
+    }
+
+    private void removeFromDay(LocalDate date, String orderId) {
+        DayPartition day = dailySales.get(date);
+        if (day != null) {
+            Payment removed = day.remove(orderId);
+            if (removed != null) monthTotals(date).add(-removed.getAmount(), -1);
         }
-        
-        // 찾았으면 이동
-        if (paymentToRemove != null && foundDate != null) {
-            // 활성 목록에서 제거
-            dailySales.get(foundDate).remove(paymentToRemove);
-            // 취소 목록에 추가
-            cancelledPayments.add(paymentToRemove);
-        } else {
-            // Payment를 못 찾았지만 Order는 존재한다면? (예외 케이스)
-            // 로직상 발생하기 어렵지만, 여기서는 false 리턴하지 않고 아이템 복구는 진행
+    }
+
+    private Totals monthTotals(LocalDate date) {
+        return monthlyTotals.computeIfAbsent(YearMonth.from(date), k -> new Totals());
+    }
+
+    private void subtractItems(Order order) {
+        for (OrderItem item : order.getItems()) {
+            int quantity = item.getQuantity();
+            itemSalesCount.computeIfPresent(item.getMenuItem().getName(),
+                (name, current) -> current - quantity <= 0 ? null : current - quantity);
         }
-        
-        // 2. 아이템 판매 수량 차감 (인기 항목 통계 갱신)
-        for (OrderItem item : orderToRemove.getItems()) {
-            String itemName = item.getMenuItem().getName();
-            if (itemSalesCount.containsKey(itemName)) {
-                int current = itemSalesCount.get(itemName);
-                int newVal = current - item.getQuantity();
-                if (newVal <= 0) itemSalesCount.remove(itemName);
-                else itemSalesCount.put(itemName, newVal);
+    }
+
+    /**
+     * 주문 취소: 주문 ID 인덱스로 바로 찾아서 취소 목록으로 이동 (O(1))
+     */
+    public boolean cancelOrder(String orderId) {
+        ReentrantLock lock = lockFor(orderId);
+        lock.lock();
+        try {
+            SaleRecord record = salesByOrderId.get(orderId);
+            if (record == null) return false;
+
+            record.order.setStatus("Cancelled");
+
+            // 이미 취소된 주문은 통계를 다시 차감하지 않음
+            if (record.cancelled) return true;
+            record.cancelled = true;
+
+            // 1. 활성 목록에서 제거 후 취소 목록에 추가
+            removeFromDay(record.date, orderId);
+            synchronized (cancelledPayments) {
+                cancelledPayments.put(orderId, record.payment);
             }
+
+            // 2. 아이템 판매 수량 차감 (인기 항목 통계 갱신)
+            subtractItems(record.order);
+
+            return true;
+        } finally {
+            lock.unlock();
         }
-        
-        return true;
     }
-    
+
     public Order getOrder(String orderId) {
-        return allOrders.get(orderId);
+        SaleRecord record = salesByOrderId.get(orderId);
+        return record != null ? record.order : null;
     }
-    
+
     public Payment getPayment(String orderId) {
-         for (List<Payment> list : dailySales.values()) {
-             for (Payment p : list) {
-                 if (p.getOrderId().equals(orderId)) return p;
-             }
-         }
-         for (Payment p : cancelledPayments) {
-             if (p.getOrderId().equals(orderId)) return p;
-         }
-         return null;
-    }
-    
+        SaleRecord record = salesByOrderId.get(orderId);
+        return record != null ? record.payment : null;
+    }
+
     public double getTotalSales(LocalDate date) {
-        return dailySales.getOrDefault(date, new ArrayList<>())
-                        .stream()
-                        .mapToDouble(Payment::getAmount)
-                        .sum();
+        DayPartition day = dailySales.get(date);
+        return day != null ? day.totals.getRevenue() : 0.0;
     }
-    
+
     public int getTotalOrders(LocalDate date) {
-        return dailySales.getOrDefault(date, new ArrayList<>()).size();
+        DayPartition day = dailySales.get(date);
+        return day != null ? day.totals.getOrders() : 0;
     }
-    
+
     public double getMonthlyRevenue(int year, int month) {
-        return dailySales.entrySet().stream()
-                .filter(entry -> {
-                    LocalDate d = entry.getKey();
-                    return d.getYear() == year && d.getMonthValue() == month;
-                })
-                .flatMap(entry -> entry.getValue().stream())
-                .mapToDouble(Payment::getAmount)
-                .sum();
-    }
-    
+        Totals totals = monthlyTotals.get(YearMonth.of(year, month));
+        return totals != null ? totals.getRevenue() : 0.0;
+    }
+
+    public int getMonthlyOrders(int year, int month) {
+        Totals totals = monthlyTotals.get(YearMonth.of(year, month));
+        return totals != null ? totals.getOrders() : 0;
+    }
+
     public List<Payment> getSalesByDate(LocalDate date) {
-        return new ArrayList<>(dailySales.getOrDefault(date, new ArrayList<>()));
+        DayPartition day = dailySales.get(date);
+        return day != null ? day.snapshot() : new ArrayList<>();
     }
-    
+
     // [확인] Controller에서 호출하는 메서드
     public List<Payment> getCancelledPayments() {
-        return new ArrayList<>(cancelledPayments);
+        synchronized (cancelledPayments) {
+            return new ArrayList<>(cancelledPayments.values());
+        }
     }
-    
+
     public List<Payment> searchOrders(int year, int month, int day, Double amount) {
         LocalDate targetDate = LocalDate.of(year, month, day);
-        List<Payment> results = new ArrayList<>(dailySales.getOrDefault(targetDate, new ArrayList<>()));
-        
+        List<Payment> results = getSalesByDate(targetDate);
+
         if (amount != null) {
             return results.stream()
                 .filter(p -> Math.abs(p.getAmount() - amount) < 0.01)
@@ -143,4 +185,60 @@ public class SalesData {
         }
         return results;
     }
-}
\ No newline at end of file
+
+    /**
+     * Running revenue and order count for a day or month
+     */
+    private static class Totals {
+        private double revenue;
+        private int orders;
+
+        synchronized void add(double amount, int count) {
+            orders += count;
+            // 주문이 모두 취소되면 부동소수점 오차 없이 0으로 되돌림
+            revenue = orders == 0 ? 0.0 : revenue + amount;
+        }
+
+        synchronized double getRevenue() { return revenue; }
+        synchronized int getOrders() { return orders; }
+    }
+
+    /**
+     * Active payments of one day, in recording order, plus that day's totals
+     */
+    private static class DayPartition {
+        private final LinkedHashMap<String, Payment> payments = new LinkedHashMap<>();
+        private final Totals totals = new Totals();
+
+        synchronized void put(String orderId, Payment payment) {
+            payments.put(orderId, payment);
+            totals.add(payment.getAmount(), 1);
+        }
+
+        synchronized Payment remove(String orderId) {
+            Payment removed = payments.remove(orderId);
+            if (removed != null) totals.add(-removed.getAmount(), -1);
+            return removed;
+        }
+
+        synchronized List<Payment> snapshot() {
+            return new ArrayList<>(payments.values());
+        }
+    }
+
+    /**
+     * One recorded sale in the primary index (mutated only under its order's lock stripe)
+     */
+    private static class SaleRecord {
+        private final Order order;
+        private final Payment payment;
+        private final LocalDate date;
+        private volatile boolean cancelled;
+
+        SaleRecord(Order order, Payment payment, LocalDate date) {
+            this.order = order;
+            this.payment = payment;
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One payment row of the sales summary report (payment joined with its order)
+ */
+public class SalesSummaryRow {
+    private final LocalDate date;
+    private final LocalTime time;
+    private final String orderId;
+    private final String paymentMethod;
+    private final double subtotal;
+    private final double discount;
+    private final double total;
+
+    public SalesSummaryRow(LocalDate date, LocalTime time, String orderId, String paymentMethod,
+                           double subtotal, double discount, double total) {
+        this.date = date;
+        this.time = time;
+        this.orderId = orderId;
+        this.paymentMethod = paymentMethod;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.total = total;
+    }
+
+    // Getters
+    public LocalDate getDate() { return date; }
+    public LocalTime getTime() { return time; }
+    public String getOrderId() { return orderId; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public double getSubtotal() { return subtotal; }
+    public double getDiscount() { return discount; }
+    public double getTotal() { return total; }
+
+    @Override
+    public String toString() {
+        return date + " " + time + " " + orderId + " - " + paymentMethod + " - $" + String.format("%.2f", total);
+    }
+}
@@ -1,11 +1,22 @@
 package util;
 
 import database.PaymentDAO;
+import model.SalesSummaryRow;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -15,104 +26,116 @@ public class CSVExporter {
     
     private static final String CSV_SEPARATOR = ",";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    static final int PROGRESS_INTERVAL = 1000;
+    
+    /**
+     * Progress callbacks for long exports, invoked on the exporting thread
+     */
+    public interface ExportProgress {
+        void onRows(int rowsWritten);
+        boolean isCancelled();
+    }
     
     /**
      * Export sales data to CSV file
+     * - Rows are streamed from the database cursor straight into a buffered writer,
+     *   and the summary totals are accumulated in the same pass
+     * - The file is created only once the first row arrives, so an empty range leaves no file
      */
     public static boolean exportSalesToCSV(String filePath, LocalDate startDate, LocalDate endDate) {
+        return exportSalesToCSV(filePath, startDate, endDate, null);
+    }
+    
+    /**
+     * Export sales data to CSV file, reporting progress every few rows.
+     * A cancelled or failed export stops reading and deletes the partial file.
+     */
+    public static boolean exportSalesToCSV(String filePath, LocalDate startDate, LocalDate endDate,
+                                           ExportProgress progress) {
+        // Ranges over several months run month by month in parallel; ".gz" files are gzipped
+        boolean gzip = filePath.toLowerCase().endsWith(".gz");
+        if (gzip || !YearMonth.from(startDate).equals(YearMonth.from(endDate))) {
+            return PartitionedCSVExporter.export(filePath, startDate, endDate, gzip, progress);
+        }
+        
         PaymentDAO paymentDAO = new PaymentDAO();
-        List<Map<String, Object>> salesData = paymentDAO.getSalesSummary(startDate, endDate);
+        SalesRowWriter[] out = new SalesRowWriter[1];
+        IOException[] failure = new IOException[1];
         
-        if (salesData.isEmpty()) {
-            System.out.println("No sales data to export");
+        int rows = paymentDAO.streamSalesSummary(startDate, endDate, row -> {
+            if (progress != null && progress.isCancelled()) {
+                return false;
+            }
+            try {
+                if (out[0] == null) {
+                    out[0] = new SalesRowWriter(openWriter(filePath));
+                    out[0].writeHeader();
+                }
+                out[0].writeRow(row);
+                if (progress != null && out[0].getOrderCount() % PROGRESS_INTERVAL == 0) {
+                    progress.onRows(out[0].getOrderCount());
+                }
+                return true;
+            } catch (IOException e) {
+                failure[0] = e;
+                return false;
+            }
+        });
+        
+        if (out[0] == null && failure[0] == null) {
+            if (rows < 0) {
+                System.err.println("❌ CSV export failed: could not read sales data");
+            } else {
+                System.out.println("No sales data to export");
+            }
             return false;
         }
         
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write CSV Header
-            writer.append("Date");
-            writer.append(CSV_SEPARATOR);
-            writer.append("Time");
-            writer.append(CSV_SEPARATOR);
-            writer.append("Order ID");
-            writer.append(CSV_SEPARATOR);
-            writer.append("Payment Method");
-            writer.append(CSV_SEPARATOR);
-            writer.append("Subtotal");
-            writer.append(CSV_SEPARATOR);
-            writer.append("Discount");
-            writer.append(CSV_SEPARATOR);
-            writer.append("Total Amount");
-            writer.append("\n");
-            
-            // Write Data Rows
-            for (Map<String, Object> row : salesData) {
-                writer.append(row.get("date").toString());
-                writer.append(CSV_SEPARATOR);
-                writer.append(row.get("time").toString());
-                writer.append(CSV_SEPARATOR);
-                writer.append(escapeCSV(row.get("order_id").toString()));
-                writer.append(CSV_SEPARATOR);
-                writer.append(escapeCSV(row.get("payment_method").toString()));
-                writer.append(CSV_SEPARATOR);
-                writer.append(String.format("%.2f", row.get("subtotal")));
-                writer.append(CSV_SEPARATOR);
-                writer.append(String.format("%.2f", row.get("discount")));
-                writer.append(CSV_SEPARATOR);
-                writer.append(String.format("%.2f", row.get("total")));
-                writer.append("\n");
+        if (progress != null && progress.isCancelled()) {
+            if (out[0] != null) {
+                try {
+                    out[0].close();
+                } catch (IOException e) {
+                    // The partial file is deleted anyway
+                }
+                new File(filePath).delete();
             }
-            
-            // Write Summary
-            writer.append("\n");
-            writer.append("SUMMARY");
-            writer.append("\n");
-            
-            double totalRevenue = salesData.stream()
-                .mapToDouble(row -> (Double) row.get("total"))
-                .sum();
-            
-            double totalDiscount = salesData.stream()
-                .mapToDouble(row -> (Double) row.get("discount"))
-                .sum();
-            
-            int totalOrders = salesData.size();
-            
-            writer.append("Total Orders");
-            writer.append(CSV_SEPARATOR);
-            writer.append(String.valueOf(totalOrders));
-            writer.append("\n");
-            
-            writer.append("Total Revenue");
-            writer.append(CSV_SEPARATOR);
-            writer.append(String.format("%.2f", totalRevenue));
-            writer.append("\n");
-            
-            writer.append("Total Discount");
-            writer.append(CSV_SEPARATOR);
-            writer.append(String.format("%.2f", totalDiscount));
-            writer.append("\n");
-            
-            writer.append("Average Order Value");
-            writer.append(CSV_SEPARATOR);
-            writer.append(String.format("%.2f", totalRevenue / totalOrders));
-            writer.append("\n");
-            
-            writer.append("\n");
-            writer.append("Exported on: " + LocalDate.now().format(DATE_FORMATTER));
-            writer.append("\n");
-            
-            writer.flush();
-            System.out.println("✅ CSV export successful: " + filePath);
+            System.out.println("CSV export cancelled: " + filePath);
+            return false;
+        }
+        
+        try (SalesRowWriter writer = out[0]) {
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            if (rows < 0) {
+                throw new IOException("Reading sales data failed part way, export is incomplete");
+            }
+            writer.writeSummary();
+            if (progress != null) {
+                progress.onRows(writer.getOrderCount());
+            }
+            System.out.println("✅ CSV export successful: " + filePath + " (" + writer.getOrderCount() + " rows)");
             return true;
             
         } catch (IOException e) {
+            // Write error or a read that failed part way: don't leave a truncated file behind
+            // (the writer is already closed here)
+            new File(filePath).delete();
             System.err.println("❌ CSV export failed: " + e.getMessage());
             e.printStackTrace();
             return false;
         }
     }
     
+    private static Writer openWriter(String filePath) throws IOException {
+        // Same default charset as FileWriter, with a large buffer in front of the file
+        return new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(filePath), Charset.defaultCharset()),
+            WRITE_BUFFER_SIZE);
+    }
+    
     /**
      * Export popular items to CSV
      */
@@ -176,5 +199,146 @@ public class CSVExporter {
         
         return value;
     }
+    
+    /**
+     * Writes sales summary rows in the export layout and keeps the running totals
+     * - Each line is built in one reused StringBuilder; numbers are formatted by hand
+     *   instead of String.format, with the same output ("%.2f", HH:mm:ss)
+     */
+    static class SalesRowWriter implements Closeable {
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder(128);
+        private final char decimalSeparator =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+        
+        private int orderCount;
+        private double totalRevenue;
+        private double revenueCompensation; // Kahan summation, as DoubleStream.sum() does
+        private double totalDiscount;
+        private double discountCompensation;
+        
+        SalesRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+        
+        void writeHeader() throws IOException {
+            writer.write("Date,Time,Order ID,Payment Method,Subtotal,Discount,Total Amount\n");
+        }
+        
+        void writeRow(SalesSummaryRow row) throws IOException {
+            line.setLength(0);
+            LocalDate date = row.getDate();
+            appendPadded(date.getYear(), 4);
+            line.append('-');
+            appendPadded(date.getMonthValue(), 2);
+            line.append('-');
+            appendPadded(date.getDayOfMonth(), 2);
+            line.append(CSV_SEPARATOR);
+            LocalTime time = row.getTime();
+            appendPadded(time.getHour(), 2);
+            line.append(':');
+            appendPadded(time.getMinute(), 2);
+            line.append(':');
+            appendPadded(time.getSecond(), 2);
+            line.append(CSV_SEPARATOR);
+            line.append(escapeCSV(row.getOrderId()));
+            line.append(CSV_SEPARATOR);
+            line.append(escapeCSV(row.getPaymentMethod()));
+            line.append(CSV_SEPARATOR);
+            appendAmount(row.getSubtotal());
+            line.append(CSV_SEPARATOR);
+            appendAmount(row.getDiscount());
+            line.append(CSV_SEPARATOR);
+            appendAmount(row.getTotal());
+            line.append('\n');
+            writer.append(line);
+            
+            orderCount++;
+            addRevenue(row.getTotal());
+            addDiscount(row.getDiscount());
+        }
+        
+        /**
+         * Add the totals of rows written by another writer (a partition of the same export)
+         */
+        void addTotals(SalesRowWriter other) {
+            orderCount += other.orderCount;
+            addRevenue(other.totalRevenue);
+            addRevenue(-other.revenueCompensation);
+            addDiscount(other.totalDiscount);
+            addDiscount(-other.discountCompensation);
+        }
+        
+        private void addRevenue(double value) {
+            double y = value - revenueCompensation;
+            double t = totalRevenue + y;
+            revenueCompensation = (t - totalRevenue) - y;
+            totalRevenue = t;
+        }
+        
+        private void addDiscount(double value) {
+            double y = value - discountCompensation;
+            double t = totalDiscount + y;
+            discountCompensation = (t - totalDiscount) - y;
+            totalDiscount = t;
+        }
+        
+        void writeSummary() throws IOException {
+            line.setLength(0);
+            line.append("\nSUMMARY\n");
+            line.append("Total Orders").append(CSV_SEPARATOR).append(orderCount).append('\n');
+            line.append("Total Revenue").append(CSV_SEPARATOR);
+            appendAmount(totalRevenue);
+            line.append('\n');
+            line.append("Total Discount").append(CSV_SEPARATOR);
+            appendAmount(totalDiscount);
+            line.append('\n');
+            line.append("Average Order Value").append(CSV_SEPARATOR);
+            appendAmount(totalRevenue / orderCount);
+            line.append('\n');
+            line.append("\nExported on: ").append(LocalDate.now().format(DATE_FORMATTER)).append('\n');
+            writer.append(line);
+        }
+        
+        int getOrderCount() {
+            return orderCount;
+        }
+        
+        void flush() throws IOException {
+            writer.flush();
+        }
+        
+        private void appendPadded(int value, int width) {
+            for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+                if (value < limit) line.append('0');
+            }
+            line.append(value);
+        }
+        
+        // Same result as String.format("%.2f", value) (HALF_UP on the exact binary value)
+        private void appendAmount(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15) {
+                line.append(String.format("%.2f", value));
+                return;
+            }
+            double scaled = Math.abs(value) * 100;
+            double fraction = scaled - Math.floor(scaled);
+            if (Math.abs(fraction - 0.5) < 1e-6) {
+                // Too close to a rounding tie for double arithmetic to decide
+                line.append(String.format("%.2f", value));
+                return;
+            }
+            long cents = Math.round(scaled);
+            if (value < 0) line.append('-');
+            line.append(cents / 100).append(decimalSeparator);
+            long rest = cents % 100;
+            if (rest < 10) line.append('0');
+            line.append(rest);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
 }
-
@@ -0,0 +1,245 @@
+package util;
+
+import database.OrderDAO;
+import model.Order;
+import model.Payment;
+import model.SalesData;
+import model.SalesSummaryRow;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility class for importing sales from a CSV file written by CSVExporter
+ * - Reads the data rows up to the SUMMARY section (plain or .gz files); files named
+ *   *.ksa are read as a SalesArchive (the compact export) instead
+ * - Rows are written to MySQL in batches, one transaction per batch
+ * - Orders already in the database are skipped with their payment, and only the orders
+ *   actually inserted are recorded in SalesData
+ * - The export has no line items: imported orders carry the exported subtotal and
+ *   discount instead, so totals and receipts show the exported amounts (without items)
+ */
+public class CSVImporter {
+
+    private static final String HEADER = "Date,Time,Order ID,Payment Method,Subtotal,Discount,Total Amount";
+    private static final int BATCH_SIZE = 1000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Progress callbacks, invoked on the importing thread
+     */
+    public interface ImportProgress {
+        void onRows(int rowsImported);
+    }
+
+    /**
+     * Import sales from a CSV export. Returns the number of new sales imported (orders already
+     * stored are not counted), or -1 if the file could not be read or the database rejected
+     * a batch (earlier batches stay saved).
+     */
+    public static int importSalesFromCSV(String filePath, SalesData salesData, ImportProgress progress) {
+        if (filePath.toLowerCase().endsWith(SalesArchive.EXTENSION)) {
+            return importSalesFromArchive(filePath, salesData, progress);
+        }
+        OrderDAO orderDAO = new OrderDAO();
+        List<SalesSummaryRow> rows = new ArrayList<>(BATCH_SIZE);
+        int imported = 0;
+        int skipped = 0;
+        int lineNumber = 1;
+
+        try (BufferedReader reader = openReader(filePath)) {
+            String header = reader.readLine();
+            if (header == null || !HEADER.equals(header.trim())) {
+                System.err.println("❌ CSV import failed: not a sales export (unexpected header)");
+                return -1;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    break; // SUMMARY section follows
+                }
+                SalesSummaryRow row = parseRow(line);
+                if (row == null) {
+                    skipped++;
+                    System.err.println("⚠️ Skipping unreadable line " + lineNumber + ": " + line);
+                    continue;
+                }
+                rows.add(row);
+                if (rows.size() == BATCH_SIZE) {
+                    imported += saveBatch(orderDAO, rows, salesData);
+                    if (progress != null) {
+                        progress.onRows(imported);
+                    }
+                }
+            }
+            imported += saveBatch(orderDAO, rows, salesData);
+            if (progress != null) {
+                progress.onRows(imported);
+            }
+
+            System.out.println("✅ CSV import successful: " + filePath + " (" + imported + " new sales"
+                + (skipped > 0 ? ", " + skipped + " skipped" : "") + ")");
+            return imported;
+
+        } catch (IOException | SQLException e) {
+            System.err.println("❌ CSV import failed after " + imported + " rows: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Import sales from a SalesArchive (.ksa); same batching and result as the CSV import
+     */
+    private static int importSalesFromArchive(String filePath, SalesData salesData, ImportProgress progress) {
+        OrderDAO orderDAO = new OrderDAO();
+        List<SalesSummaryRow> rows = new ArrayList<>(BATCH_SIZE);
+        int[] imported = {0};
+        SQLException[] failure = {null};
+
+        try {
+            SalesArchive.read(new File(filePath), row -> {
+                rows.add(row);
+                if (rows.size() < BATCH_SIZE) {
+                    return true;
+                }
+                try {
+                    imported[0] += saveBatch(orderDAO, rows, salesData);
+                } catch (SQLException e) {
+                    failure[0] = e;
+                    return false; // stop reading, earlier batches stay saved
+                }
+                if (progress != null) {
+                    progress.onRows(imported[0]);
+                }
+                return true;
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            imported[0] += saveBatch(orderDAO, rows, salesData);
+            if (progress != null) {
+                progress.onRows(imported[0]);
+            }
+
+            System.out.println("✅ Sales archive import successful: " + filePath + " (" + imported[0] + " new sales)");
+            return imported[0];
+
+        } catch (IOException | SQLException e) {
+            System.err.println("❌ Sales archive import failed after " + imported[0] + " rows: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private static BufferedReader openReader(String filePath) throws IOException {
+        InputStream in = new FileInputStream(filePath);
+        if (filePath.toLowerCase().endsWith(".gz")) {
+            in = new GZIPInputStream(in, READ_BUFFER_SIZE);
+        }
+        // CSVExporter writes in the default charset
+        return new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()), READ_BUFFER_SIZE);
+    }
+
+    private static int saveBatch(OrderDAO orderDAO, List<SalesSummaryRow> rows, SalesData salesData) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Order> orders = new ArrayList<>(rows.size());
+        List<Payment> payments = new ArrayList<>(rows.size());
+        for (SalesSummaryRow row : rows) {
+            LocalDateTime time = LocalDateTime.of(row.getDate(), row.getTime());
+            Order order = new Order(row.getOrderId(), time);
+            order.setStoredSubtotal(row.getSubtotal());
+            order.setDiscountPercent(row.getSubtotal() > 0 ? row.getDiscount() / row.getSubtotal() * 100 : 0.0);
+            order.setStatus("Completed");
+            orders.add(order);
+            payments.add(new Payment("PAY" + row.getOrderId(), row.getOrderId(), row.getTotal(),
+                Payment.PaymentMethod.valueOf(row.getPaymentMethod()), time));
+        }
+
+        Set<String> inserted = orderDAO.importSales(rows, payments);
+
+        if (salesData != null) {
+            for (int i = 0; i < orders.size(); i++) {
+                String orderId = orders.get(i).getOrderId();
+                if (inserted.contains(orderId) && salesData.getOrder(orderId) == null) {
+                    salesData.recordSale(payments.get(i), orders.get(i));
+                }
+            }
+        }
+        int count = inserted.size();
+        rows.clear();
+        return count;
+    }
+
+    /**
+     * Parse one data row, or null if it is not a valid sales row
+     */
+    private static SalesSummaryRow parseRow(String line) {
+        List<String> fields = splitCSV(line);
+        if (fields.size() != 7) {
+            return null;
+        }
+        try {
+            Payment.PaymentMethod.valueOf(fields.get(3)); // reject unknown methods up front
+            return new SalesSummaryRow(
+                LocalDate.parse(fields.get(0)),
+                LocalTime.parse(fields.get(1)),
+                fields.get(2),
+                fields.get(3),
+                Double.parseDouble(fields.get(4)),
+                Double.parseDouble(fields.get(5)),
+                Double.parseDouble(fields.get(6)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Split a CSV line, undoing CSVExporter's quoting ("a,b" and "" for a quote)
+     */
+    private static List<String> splitCSV(String line) {
+        List<String> fields = new ArrayList<>(7);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,123 @@
+package util;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs CSV exports on a background thread so the UI stays responsive
+ * - Files named *.ksa are written as a compressed SalesArchive instead of CSV
+ * - Exports are queued and run one at a time, in submission order
+ * - Each export reports row progress and can be cancelled while queued or running
+ */
+public class ExportService {
+    private static ExportService instance;
+
+    public enum Result { DONE, FAILED, CANCELLED }
+
+    /**
+     * Export callbacks, invoked on the export thread (or the cancelling thread
+     * for an export cancelled before it started)
+     */
+    public interface ExportListener {
+        void onStarted(ExportTask task);
+        void onProgress(ExportTask task, int rowsWritten);
+        void onFinished(ExportTask task, Result result);
+    }
+
+    private final ExecutorService executor;
+
+    private ExportService() {
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "csv-export");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    public static synchronized ExportService getInstance() {
+        if (instance == null) {
+            instance = new ExportService();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a sales export; returns a handle that can cancel it
+     */
+    public ExportTask exportSales(String filePath, LocalDate startDate, LocalDate endDate, ExportListener listener) {
+        ExportTask task = new ExportTask(filePath, startDate, endDate, listener);
+        executor.execute(task::run);
+        return task;
+    }
+
+    /**
+     * Stop the export thread, abandoning queued exports and cancelling the running one
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One queued or running export
+     */
+    public static class ExportTask implements CSVExporter.ExportProgress {
+        private final String filePath;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final ExportListener listener;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile int rowsWritten;
+
+        private ExportTask(String filePath, LocalDate startDate, LocalDate endDate, ExportListener listener) {
+            this.filePath = filePath;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.listener = listener;
+        }
+
+        private void run() {
+            if (!started.compareAndSet(false, true)) {
+                return; // cancelled while queued
+            }
+            listener.onStarted(this);
+            boolean success = filePath.toLowerCase().endsWith(SalesArchive.EXTENSION)
+                ? SalesArchive.export(filePath, startDate, endDate, this)
+                : CSVExporter.exportSalesToCSV(filePath, startDate, endDate, this);
+            listener.onFinished(this, success ? Result.DONE : cancelled ? Result.CANCELLED : Result.FAILED);
+        }
+
+        /**
+         * Cancel the export; a running export stops at the next row and deletes its partial file
+         */
+        public void cancel() {
+            cancelled = true;
+            if (started.compareAndSet(false, true)) {
+                listener.onFinished(this, Result.CANCELLED);
+            }
+        }
+
+        @Override
+        public void onRows(int rowsWritten) {
+            this.rowsWritten = rowsWritten;
+            listener.onProgress(this, rowsWritten);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled || Thread.currentThread().isInterrupted();
+        }
+
+        public String getFilePath() { return filePath; }
+        public int getRowsWritten() { return rowsWritten; }
+    }
+}
@@ -147,6 +147,18 @@ public class LanguageResources {
         english.put("btn_print_receipt", "Print Receipt");
         english.put("btn_cancel_order", "Cancel Order");
         english.put("btn_export_csv", "Export Sales to CSV");
+        english.put("status_loading_history", "Loading sales history...");
+        english.put("status_history_loaded", "Sales history loaded:");
+        english.put("btn_cancel_export", "Cancel Export");
+        english.put("status_exporting", "Exporting sales... rows:");
+        english.put("status_export_queued", "queued:");
+        english.put("status_export_done", "CSV export complete:");
+        english.put("status_export_failed", "CSV export failed or no sales in range");
+        english.put("status_export_cancelled", "CSV export cancelled");
+        english.put("btn_import_csv", "Import Sales CSV");
+        english.put("status_importing", "Importing sales... rows:");
+        english.put("status_import_done", "CSV import complete:");
+        english.put("status_import_failed", "CSV import failed, rows saved:");
         
         // --- 7. Payment Dialog ---
         english.put("process_payment", "Process Payment");
@@ -318,6 +330,18 @@ public class LanguageResources {
         korean.put("btn_print_receipt", "영수증 출력");
         korean.put("btn_cancel_order", "주문 취소");
         korean.put("btn_export_csv", "매출 CSV 내보내기");
+        korean.put("status_loading_history", "매출 기록 불러오는 중...");
+        korean.put("status_history_loaded", "매출 기록 불러오기 완료:");
+        korean.put("btn_cancel_export", "내보내기 취소");
+        korean.put("status_exporting", "매출 내보내는 중... 행:");
+        korean.put("status_export_queued", "대기:");
+        korean.put("status_export_done", "CSV 내보내기 완료:");
+        korean.put("status_export_failed", "CSV 내보내기 실패 또는 기간 내 매출 없음");
+        korean.put("status_export_cancelled", "CSV 내보내기 취소됨");
+        korean.put("btn_import_csv", "매출 CSV 가져오기");
+        korean.put("status_importing", "매출 가져오는 중... 행:");
+        korean.put("status_import_done", "CSV 가져오기 완료:");
+        korean.put("status_import_failed", "CSV 가져오기 실패, 저장된 행:");
         
         // --- Payment Dialog ---
         korean.put("process_payment", "결제 처리");
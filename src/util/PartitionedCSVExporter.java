@@ -0,0 +1,166 @@
+package util;
+
+import database.PaymentDAO;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sales CSV export for wide date ranges
+ * - The range is split into calendar months, newest first (the export's row order)
+ * - Months are queried and encoded in parallel on a small worker pool, then appended
+ *   to the file strictly in order, so the rows and SUMMARY match a single-pass export
+ * - Only a few finished months are held in memory at a time
+ */
+class PartitionedCSVExporter {
+    // Each worker holds a pooled connection while it reads; leave the rest for the registers
+    private static final int MAX_WORKERS = 4;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private PartitionedCSVExporter() {
+    }
+
+    static boolean export(String filePath, LocalDate startDate, LocalDate endDate, boolean gzip,
+                          CSVExporter.ExportProgress progress) {
+        List<LocalDate[]> months = splitByMonth(startDate, endDate);
+        int workers = Math.max(1, Math.min(MAX_WORKERS, Math.min(months.size(), Runtime.getRuntime().availableProcessors())));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "csv-export-partition");
+            t.setDaemon(true);
+            return t;
+        });
+        PaymentDAO paymentDAO = new PaymentDAO();
+        AtomicInteger rowsRead = new AtomicInteger();
+        Deque<Future<Partition>> window = new ArrayDeque<>();
+        int next = 0;
+        File file = new File(filePath);
+        boolean complete = false;
+
+        try (OutputStream target = openStream(file, gzip);
+             CSVExporter.SalesRowWriter out = new CSVExporter.SalesRowWriter(
+                new OutputStreamWriter(target, Charset.defaultCharset()))) {
+            // Header and summary go through the writer, month rows straight to the stream
+            out.writeHeader();
+            out.flush();
+
+            while (next < months.size() || !window.isEmpty()) {
+                while (next < months.size() && window.size() < workers * 2) {
+                    LocalDate[] month = months.get(next++);
+                    window.addLast(pool.submit(readMonth(paymentDAO, month[0], month[1], rowsRead, progress)));
+                }
+                Partition partition = window.pollFirst().get();
+                if (isCancelled(progress)) {
+                    System.out.println("CSV export cancelled: " + filePath);
+                    return false;
+                }
+                if (partition.rows < 0) {
+                    throw new IOException("Reading sales data failed part way, export is incomplete");
+                }
+                partition.bytes.writeTo(target);
+                out.addTotals(partition.totals);
+            }
+
+            if (out.getOrderCount() == 0) {
+                System.out.println("No sales data to export");
+                return false;
+            }
+            out.writeSummary();
+            if (progress != null) {
+                progress.onRows(out.getOrderCount());
+            }
+            complete = true;
+            System.out.println("✅ CSV export successful: " + filePath + " (" + out.getOrderCount() + " rows, "
+                + months.size() + " months on " + workers + " threads)");
+            return true;
+
+        } catch (IOException | ExecutionException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            System.err.println("❌ CSV export failed: " + cause.getMessage());
+            cause.printStackTrace();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            pool.shutdownNow();
+            if (!complete) {
+                file.delete();
+            }
+        }
+    }
+
+    // Calendar months covering [startDate, endDate], newest first
+    private static List<LocalDate[]> splitByMonth(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate[]> months = new ArrayList<>();
+        YearMonth first = YearMonth.from(startDate);
+        for (YearMonth month = YearMonth.from(endDate); !month.isBefore(first); month = month.minusMonths(1)) {
+            LocalDate from = month.atDay(1).isBefore(startDate) ? startDate : month.atDay(1);
+            LocalDate to = month.atEndOfMonth().isAfter(endDate) ? endDate : month.atEndOfMonth();
+            months.add(new LocalDate[] { from, to });
+        }
+        return months;
+    }
+
+    private static OutputStream openStream(File file, boolean gzip) throws IOException {
+        OutputStream stream = new BufferedOutputStream(new FileOutputStream(file), WRITE_BUFFER_SIZE);
+        return gzip ? new GZIPOutputStream(stream, WRITE_BUFFER_SIZE) : stream;
+    }
+
+    private static Callable<Partition> readMonth(PaymentDAO paymentDAO, LocalDate from, LocalDate to,
+                                                 AtomicInteger rowsRead, CSVExporter.ExportProgress progress) {
+        return () -> {
+            Partition partition = new Partition();
+            CSVExporter.SalesRowWriter writer = partition.totals;
+            partition.rows = paymentDAO.streamSalesSummary(from, to, row -> {
+                if (isCancelled(progress)) {
+                    return false;
+                }
+                try {
+                    writer.writeRow(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                int read = rowsRead.incrementAndGet();
+                if (progress != null && read % CSVExporter.PROGRESS_INTERVAL == 0) {
+                    progress.onRows(read);
+                }
+                return true;
+            });
+            writer.flush();
+            return partition;
+        };
+    }
+
+    private static boolean isCancelled(CSVExporter.ExportProgress progress) {
+        return progress != null && progress.isCancelled();
+    }
+
+    /**
+     * One month of encoded rows and their totals
+     */
+    private static class Partition {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(WRITE_BUFFER_SIZE);
+        private final CSVExporter.SalesRowWriter totals =
+            new CSVExporter.SalesRowWriter(new OutputStreamWriter(bytes, Charset.defaultCharset()));
+        private int rows;
+    }
+}
@@ -0,0 +1,335 @@
+package util;
+
+import database.PaymentDAO;
+import model.SalesSummaryRow;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact columnar archive of sales summary rows (same rows as the CSV export)
+ * - Rows are stored in blocks; inside a block each column is stored contiguously
+ * - Timestamps: seconds delta from the previous row; amounts: whole cents;
+ *   both as zig-zag variable-length integers
+ * - Payment method and order ID prefix (the yyyyMMdd part) are dictionary codes;
+ *   the numeric order counter is stored as a number plus its digit width
+ * - The whole stream is gzip-compressed
+ */
+public class SalesArchive {
+    public static final String EXTENSION = ".ksa";
+
+    private static final int MAGIC = 0x4B534131; // "KSA1"
+    private static final int BLOCK_ROWS = 8192;
+    private static final int ORDER_PREFIX_LENGTH = 8;
+    private static final int MAX_NUMERIC_SUFFIX = 18;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SalesArchive() {
+    }
+
+    /**
+     * Export sales in [startDate, endDate] to an archive file.
+     * Like the CSV export, an empty range or a cancelled export leaves no file.
+     */
+    public static boolean export(String filePath, LocalDate startDate, LocalDate endDate,
+                                 CSVExporter.ExportProgress progress) {
+        File file = new File(filePath);
+        boolean complete = false;
+        PaymentDAO paymentDAO = new PaymentDAO();
+
+        try (Writer writer = new Writer(new FileOutputStream(file))) {
+            int rows = paymentDAO.streamSalesSummary(startDate, endDate, row -> {
+                if (progress != null && progress.isCancelled()) {
+                    return false;
+                }
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (progress != null && writer.getRowCount() % CSVExporter.PROGRESS_INTERVAL == 0) {
+                    progress.onRows(writer.getRowCount());
+                }
+                return true;
+            });
+
+            if (progress != null && progress.isCancelled()) {
+                System.out.println("Sales archive export cancelled: " + filePath);
+                return false;
+            }
+            if (rows < 0) {
+                throw new IOException("Reading sales data failed part way, export is incomplete");
+            }
+            if (writer.getRowCount() == 0) {
+                System.out.println("No sales data to export");
+                return false;
+            }
+            writer.finish();
+            if (progress != null) {
+                progress.onRows(writer.getRowCount());
+            }
+            complete = true;
+            System.out.println("✅ Sales archive export successful: " + filePath + " (" + writer.getRowCount() + " rows)");
+            return true;
+
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("❌ Sales archive export failed: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (!complete) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Read every row of an archive in stored order. The handler returns false to stop early.
+     * Returns the number of rows handled.
+     */
+    public static int read(File file, PaymentDAO.SalesSummaryHandler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a sales archive: " + file);
+            }
+            List<String> prefixes = new ArrayList<>();
+            List<String> methods = new ArrayList<>();
+            long timestamp = 0;
+            int count = 0;
+
+            while (true) {
+                int blockRows = (int) readVarLong(in);
+                if (blockRows == 0) {
+                    return count;
+                }
+                long[] seconds = new long[blockRows];
+                for (int i = 0; i < blockRows; i++) {
+                    timestamp += zigzagDecode(readVarLong(in));
+                    seconds[i] = timestamp;
+                }
+                String[] orderIds = new String[blockRows];
+                for (int i = 0; i < blockRows; i++) {
+                    orderIds[i] = readDictionary(in, prefixes);
+                }
+                for (int i = 0; i < blockRows; i++) {
+                    orderIds[i] += readSuffix(in);
+                }
+                String[] paymentMethods = new String[blockRows];
+                for (int i = 0; i < blockRows; i++) {
+                    paymentMethods[i] = readDictionary(in, methods);
+                }
+                long[] subtotals = readCents(in, blockRows);
+                long[] discounts = readCents(in, blockRows);
+                long[] totals = readCents(in, blockRows);
+
+                for (int i = 0; i < blockRows; i++) {
+                    LocalDateTime time = LocalDateTime.ofEpochSecond(seconds[i], 0, ZoneOffset.UTC);
+                    count++;
+                    if (!handler.onRow(new SalesSummaryRow(time.toLocalDate(), time.toLocalTime(), orderIds[i],
+                            paymentMethods[i], subtotals[i] / 100.0, discounts[i] / 100.0, totals[i] / 100.0))) {
+                        return count;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes rows into an archive stream, one block of columns at a time
+     */
+    static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final Map<String, Integer> prefixCodes = new HashMap<>();
+        private final Map<String, Integer> methodCodes = new HashMap<>();
+        private final DataOutputStream[] columns = new DataOutputStream[7];
+        private final ByteArrayOutputStream[] columnBytes = new ByteArrayOutputStream[7];
+        private long previousSecond;
+        private int blockRows;
+        private int rowCount;
+        private boolean finished;
+
+        Writer(OutputStream stream) throws IOException {
+            this.out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE), BUFFER_SIZE));
+            for (int i = 0; i < columns.length; i++) {
+                columnBytes[i] = new ByteArrayOutputStream(BLOCK_ROWS * 2);
+                columns[i] = new DataOutputStream(columnBytes[i]);
+            }
+            out.writeInt(MAGIC);
+        }
+
+        void write(SalesSummaryRow row) throws IOException {
+            long second = LocalDateTime.of(row.getDate(), row.getTime()).toEpochSecond(ZoneOffset.UTC);
+            writeVarLong(columns[0], zigzagEncode(second - previousSecond));
+            previousSecond = second;
+
+            String orderId = row.getOrderId();
+            int split = Math.min(ORDER_PREFIX_LENGTH, orderId.length());
+            writeDictionary(columns[1], prefixCodes, orderId.substring(0, split));
+            writeSuffix(columns[2], orderId.substring(split));
+
+            writeDictionary(columns[3], methodCodes, row.getPaymentMethod());
+            writeVarLong(columns[4], zigzagEncode(toCents(row.getSubtotal())));
+            writeVarLong(columns[5], zigzagEncode(toCents(row.getDiscount())));
+            writeVarLong(columns[6], zigzagEncode(toCents(row.getTotal())));
+
+            rowCount++;
+            if (++blockRows == BLOCK_ROWS) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (blockRows == 0) {
+                return;
+            }
+            writeVarLong(out, blockRows);
+            for (ByteArrayOutputStream column : columnBytes) {
+                column.writeTo(out);
+                column.reset();
+            }
+            blockRows = 0;
+        }
+
+        int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Write the last block and the end marker
+         */
+        void finish() throws IOException {
+            if (!finished) {
+                flushBlock();
+                writeVarLong(out, 0);
+                finished = true;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    // A known value is written as its code; a new value as the next code followed by the text
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> codes, String value) throws IOException {
+        String key = value != null ? value : "";
+        Integer code = codes.get(key);
+        if (code != null) {
+            writeVarLong(out, code);
+            return;
+        }
+        code = codes.size();
+        codes.put(key, code);
+        writeVarLong(out, code);
+        out.writeUTF(key);
+    }
+
+    private static String readDictionary(DataInputStream in, List<String> values) throws IOException {
+        int code = (int) readVarLong(in);
+        if (code == values.size()) {
+            values.add(in.readUTF());
+        } else if (code > values.size()) {
+            throw new IOException("Corrupt sales archive: dictionary code " + code);
+        }
+        return values.get(code);
+    }
+
+    // Digits-only suffix: width then value (keeps leading zeros); anything else: 0 then the text
+    private static void writeSuffix(DataOutputStream out, String suffix) throws IOException {
+        if (!suffix.isEmpty() && suffix.length() <= MAX_NUMERIC_SUFFIX && isDigits(suffix)) {
+            writeVarLong(out, suffix.length());
+            writeVarLong(out, Long.parseLong(suffix));
+        } else {
+            writeVarLong(out, 0);
+            out.writeUTF(suffix);
+        }
+    }
+
+    private static String readSuffix(DataInputStream in) throws IOException {
+        int width = (int) readVarLong(in);
+        if (width == 0) {
+            return in.readUTF();
+        }
+        String digits = Long.toString(readVarLong(in));
+        StringBuilder sb = new StringBuilder(width);
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] readCents(DataInputStream in, int count) throws IOException {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = zigzagDecode(readVarLong(in));
+        }
+        return values;
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated sales archive");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt sales archive: varint too long");
+    }
+}
@@ -0,0 +1,162 @@
+package util;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Loads menu images in the background and keeps pre-scaled thumbnails in memory
+ * - Entries are keyed by path, file modification time and file length (plus the
+ *   thumbnail size), so an edited image is picked up on the next display
+ * - Least recently used thumbnails are dropped once MAX_ENTRIES is reached
+ * - Requests for an image that is already being loaded share the same decode
+ * - Thumbnails are also kept on disk (ThumbnailStore), so full-size images are only
+ *   decoded the first time they are seen or after they change
+ */
+public class ThumbnailCache {
+    private static final int MAX_ENTRIES = 128;
+    private static final int LOADER_THREADS = 2;
+
+    private static ThumbnailCache instance;
+
+    private final Map<String, ImageIcon> cache; // access-ordered LRU, guarded by this
+    private final Map<String, List<Consumer<ImageIcon>>> loading = new HashMap<>(); // guarded by this
+    private final ExecutorService executor;
+    private final ThumbnailStore store = new ThumbnailStore();
+
+    private ThumbnailCache() {
+        this.cache = new LinkedHashMap<String, ImageIcon>(MAX_ENTRIES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+        this.executor = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            Thread t = new Thread(r, "thumbnail-loader");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache();
+        }
+        return instance;
+    }
+
+    /**
+     * The cached thumbnail, or null if it has not been loaded yet (or the file is missing)
+     */
+    public ImageIcon getCached(String path, int width, int height) {
+        String key = key(new File(path), width, height);
+        if (key == null) {
+            return null;
+        }
+        synchronized (this) {
+            return cache.get(key);
+        }
+    }
+
+    /**
+     * Load a thumbnail in the background. The callback runs on the Swing event thread
+     * with the icon, or with null if the file is missing or cannot be decoded.
+     */
+    public void load(String path, int width, int height, Consumer<ImageIcon> callback) {
+        File file = new File(path);
+        String key = key(file, width, height);
+        if (key == null) {
+            SwingUtilities.invokeLater(() -> callback.accept(null));
+            return;
+        }
+        synchronized (this) {
+            ImageIcon cached = cache.get(key);
+            if (cached != null) {
+                SwingUtilities.invokeLater(() -> callback.accept(cached));
+                return;
+            }
+            List<Consumer<ImageIcon>> waiting = loading.get(key);
+            if (waiting != null) {
+                waiting.add(callback);
+                return;
+            }
+            waiting = new ArrayList<>();
+            waiting.add(callback);
+            loading.put(key, waiting);
+        }
+        executor.execute(() -> {
+            ImageIcon icon = decode(file, width, height);
+            List<Consumer<ImageIcon>> callbacks;
+            synchronized (this) {
+                if (icon != null) {
+                    cache.put(key, icon);
+                }
+                callbacks = loading.remove(key);
+            }
+            SwingUtilities.invokeLater(() -> {
+                for (Consumer<ImageIcon> c : callbacks) {
+                    c.accept(icon);
+                }
+            });
+        });
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private static String key(File file, int width, int height) {
+        long modified = file.lastModified(); // 0 if the file does not exist
+        if (modified == 0L) {
+            return null;
+        }
+        return file.getAbsolutePath() + "|" + modified + "|" + file.length() + "|" + width + "x" + height;
+    }
+
+    // Use the stored thumbnail if the source is unchanged; otherwise decode and scale
+    // the full image once, into a real image so painting the card never rescales
+    ImageIcon decode(File file, int width, int height) {
+        try {
+            BufferedImage thumbnail = store.read(file, width, height);
+            if (thumbnail == null) {
+                BufferedImage img = ImageIO.read(file);
+                if (img == null) {
+                    return null;
+                }
+                thumbnail = scale(img, width, height);
+                store.write(file, width, height, thumbnail);
+            }
+            return new ImageIcon(thumbnail);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static BufferedImage scale(BufferedImage img, int width, int height) {
+        // ImageIcon waits (MediaTracker) until the smooth scaling has been produced
+        Image scaled = new ImageIcon(img.getScaledInstance(width, height, Image.SCALE_SMOOTH)).getImage();
+        BufferedImage thumbnail = new BufferedImage(width, height,
+            img.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        g.drawImage(scaled, 0, 0, null);
+        g.dispose();
+        return thumbnail;
+    }
+}
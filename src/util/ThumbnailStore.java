@@ -0,0 +1,99 @@
+package util;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * On-disk store of card-sized thumbnails (data/thumbnails), so a restart does not
+ * have to decode the full-size menu images again
+ * - File name: [hash of source path]_[width]x[height]_[source mtime]_[source length].png
+ * - A changed source file gets a new name; the outdated thumbnails of that source
+ *   are deleted when the new one is written
+ */
+class ThumbnailStore {
+    private static final String DIRECTORY = "data/thumbnails";
+    private static final String FORMAT = "png";
+
+    private final File directory;
+
+    ThumbnailStore() {
+        this(new File(DIRECTORY));
+    }
+
+    ThumbnailStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The stored thumbnail of this version of the source, or null
+     */
+    BufferedImage read(File source, int width, int height) {
+        File thumbnail = thumbnailFile(source, width, height);
+        if (!thumbnail.isFile()) {
+            return null;
+        }
+        try {
+            BufferedImage img = ImageIO.read(thumbnail);
+            if (img != null && img.getWidth() == width && img.getHeight() == height) {
+                return img;
+            }
+        } catch (IOException e) {
+            // Unreadable thumbnail - fall through and let it be rebuilt
+        }
+        thumbnail.delete();
+        return null;
+    }
+
+    /**
+     * Save a thumbnail for this version of the source (best effort)
+     */
+    void write(File source, int width, int height, BufferedImage img) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File thumbnail = thumbnailFile(source, width, height);
+        File temp = new File(directory, thumbnail.getName() + ".tmp");
+        try {
+            if (!ImageIO.write(img, FORMAT, temp)) {
+                temp.delete();
+                return;
+            }
+            // Another loader may write the same thumbnail; either copy is valid
+            Files.move(temp.toPath(), thumbnail.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            temp.delete();
+            System.err.println("⚠️ Could not save thumbnail for " + source + ": " + e.getMessage());
+            return;
+        }
+        deleteOutdated(source, width, height, thumbnail);
+    }
+
+    private void deleteOutdated(File source, int width, int height, File current) {
+        String prefix = sourceKey(source) + "_" + width + "x" + height + "_";
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith("." + FORMAT));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!file.getName().equals(current.getName())) {
+                file.delete();
+            }
+        }
+    }
+
+    private File thumbnailFile(File source, int width, int height) {
+        return new File(directory, sourceKey(source) + "_" + width + "x" + height + "_"
+            + source.lastModified() + "_" + source.length() + "." + FORMAT);
+    }
+
+    private static String sourceKey(File source) {
+        byte[] path = source.getAbsolutePath().getBytes(StandardCharsets.UTF_8);
+        return UUID.nameUUIDFromBytes(path).toString().replace("-", "");
+    }
+}
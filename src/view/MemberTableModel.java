@@ -0,0 +1,222 @@
+package view;
+
+import controller.MembershipController;
+import model.Member;
+import model.MemberSearchIndex;
+import util.LanguageManager;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Table model for MembershipView
+ * - Browsing: members are fetched a page at a time (keyset on total spent, phone) on one
+ *   background thread, when the table asks for rows near the end of what has been loaded
+ * - Search results: a fixed list from the member search
+ * - Cells are formatted when they are painted, not for every member up front
+ * - updateMember() refreshes (or moves) just that member's row, e.g. after a payment
+ */
+class MemberTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 200;
+    private static final int PREFETCH_ROWS = 50; // load the next page this close to the end
+    private static final String[] COLUMN_KEYS = {
+        "phone_number", "name", "total_spent", "level", "discount", "to_next_level"
+    };
+
+    private final MembershipController membershipController;
+    private final LanguageManager langManager = LanguageManager.getInstance();
+    private final ExecutorService pageLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "member-page-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private List<Member> rows = new ArrayList<>();
+    private final Set<String> phones = new HashSet<>(); // phone numbers in rows
+    private Member cursor;     // last member returned by the database, null before the first page
+    private boolean paged;     // rows come from database pages (false for a search result)
+    private boolean complete;  // no more pages
+    private boolean loading;
+    private int generation;    // changes on every reload, so late pages are dropped
+
+    MemberTableModel(MembershipController membershipController) {
+        this.membershipController = membershipController;
+    }
+
+    /**
+     * Show all members, starting again from the first page
+     */
+    void reload() {
+        generation++;
+        rows = new ArrayList<>();
+        phones.clear();
+        cursor = null;
+        paged = true;
+        complete = false;
+        loading = false;
+        fireTableDataChanged();
+        requestNextPage();
+    }
+
+    /**
+     * Show a fixed list of members (e.g. search results), in the given order
+     */
+    void setMembers(List<Member> members) {
+        generation++;
+        rows = new ArrayList<>(members);
+        phones.clear();
+        for (Member member : rows) {
+            phones.add(member.getPhoneNumber());
+        }
+        paged = false;
+        complete = true;
+        loading = false;
+        fireTableDataChanged();
+    }
+
+    Member getMemberAt(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Refresh one member's row; it moves if its total changed its place in the order.
+     * While browsing, a member that was not loaded yet is inserted if it now sorts
+     * among the loaded rows (later pages start after the cursor, so it is not repeated).
+     */
+    void updateMember(Member member) {
+        int index = indexOf(member.getPhoneNumber());
+        if (index < 0 && !paged) {
+            return; // not part of this search result
+        }
+        if (index >= 0) {
+            rows.remove(index);
+        }
+        int position = Collections.binarySearch(rows, member, MemberSearchIndex.TABLE_ORDER);
+        position = position < 0 ? -position - 1 : position;
+
+        if (position == index) {
+            rows.add(index, member);
+            fireTableRowsUpdated(index, index);
+            return;
+        }
+        if (index >= 0) {
+            phones.remove(member.getPhoneNumber());
+            fireTableRowsDeleted(index, index);
+        }
+        if (position < rows.size() || complete) {
+            rows.add(position, member);
+            phones.add(member.getPhoneNumber());
+            fireTableRowsInserted(position, position);
+        }
+    }
+
+    private int indexOf(String phoneNumber) {
+        if (!phones.contains(phoneNumber)) {
+            return -1;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getPhoneNumber().equals(phoneNumber)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void requestNextPage() {
+        if (!paged || complete || loading) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        Member after = cursor;
+        pageLoader.execute(() -> {
+            List<Member> page = membershipController.getMembersPage(after, PAGE_SIZE);
+            SwingUtilities.invokeLater(() -> appendPage(requestGeneration, page));
+        });
+    }
+
+    private void appendPage(int requestGeneration, List<Member> page) {
+        if (requestGeneration != generation) {
+            return; // reloaded or switched to a search meanwhile
+        }
+        loading = false;
+        if (page.size() < PAGE_SIZE) {
+            complete = true;
+        }
+        if (page.isEmpty()) {
+            return;
+        }
+        cursor = page.get(page.size() - 1);
+
+        int first = rows.size();
+        for (Member member : page) {
+            if (phones.add(member.getPhoneNumber())) {
+                rows.add(member);
+            }
+        }
+        if (rows.size() > first) {
+            fireTableRowsInserted(first, rows.size() - 1);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_KEYS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return langManager.getText(COLUMN_KEYS[column]);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (paged && row >= rows.size() - PREFETCH_ROWS) {
+            requestNextPage(); // the table is painting rows near the end
+        }
+        Member member = rows.get(row);
+        switch (column) {
+            case 0:
+                return member.getPhoneNumber();
+            case 1:
+                return member.getName();
+            case 2:
+                return formatAmount(member.getTotalSpent());
+            case 3:
+                return "Level " + member.getMembershipLevel();
+            case 4:
+                return String.format("%.0f%%", member.getDiscountPercent());
+            case 5:
+            default:
+                if (member.getMembershipLevel() == 1) {
+                    return langManager.getText("max_level");
+                }
+                return formatAmount(member.getAmountToNextLevel());
+        }
+    }
+
+    // Won are shown rounded to whole won, dollars through formatPrice
+    private String formatAmount(double amount) {
+        if (langManager.getCurrentLanguage() == LanguageManager.Language.KOREAN) {
+            double wonAmount = Math.round(amount * 1200);
+            return "₩ " + String.format("%,d", (long) wonAmount);
+        }
+        return langManager.formatPrice(amount);
+    }
+}
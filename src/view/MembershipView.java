@@ -4,17 +4,23 @@ import model.Member;
 import controller.MembershipController;
 import util.LanguageManager;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.util.List;
 
 /**
  * View for managing member registrations and viewing membership information
+ * - The search field filters as you type (from the in-memory member index); a term that
+ *   extends the previous one only narrows the previous result
+ * - Without a search term the table loads members page by page as it is scrolled
  */
 public class MembershipView extends JPanel {
+    private static final int TYPEAHEAD_DELAY_MILLIS = 120; // coalesce fast typing
+    
     private JTable memberTable;
-    private DefaultTableModel tableModel;
+    private MemberTableModel tableModel;
     private JTextField phoneField;
     private JTextField nameField;
     private JTextField totalSpentField;
@@ -39,6 +45,10 @@ public class MembershipView extends JPanel {
     private JLabel infoLabel;
     private JLabel currencyHintLabel;
     
+    private Timer searchTimer;
+    private String lastSearchTerm;          // term behind lastSearchResults, null after a reload
+    private List<Member> lastSearchResults;
+    
     public MembershipView() {
         langManager = LanguageManager.getInstance();
         membershipController = new MembershipController();
@@ -50,6 +60,7 @@ public class MembershipView extends JPanel {
         setupLanguageListener();
         updateFonts(); // 초기 폰트 적용
         loadMembers();
+        membershipController.reloadSearchIndex();
     }
     
     private void initializeComponents() {
@@ -78,19 +89,12 @@ public class MembershipView extends JPanel {
         topPanel.add(searchPanel, BorderLayout.NORTH);
         
         // Table
-        updateTableModel();
+        tableModel = new MemberTableModel(membershipController);
         
         memberTable = new JTable(tableModel);
         memberTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         memberTable.setRowHeight(25);
-        
-        // Set column widths
-        memberTable.getColumnModel().getColumn(0).setPreferredWidth(120); // Phone
-        memberTable.getColumnModel().getColumn(1).setPreferredWidth(150); // Name
-        memberTable.getColumnModel().getColumn(2).setPreferredWidth(100); // Total Spent
-        memberTable.getColumnModel().getColumn(3).setPreferredWidth(80);  // Level
-        memberTable.getColumnModel().getColumn(4).setPreferredWidth(80);  // Discount
-        memberTable.getColumnModel().getColumn(5).setPreferredWidth(150); // Next Level
+        applyColumnWidths();
         
         JScrollPane tableScroll = new JScrollPane(memberTable);
         topPanel.add(tableScroll, BorderLayout.CENTER);
@@ -193,44 +197,23 @@ public class MembershipView extends JPanel {
         repaint();
     }
     
-    private void updateTableModel() {
-        String[] columnNames = {
-            langManager.getText("phone_number"), 
-            langManager.getText("name"), 
-            langManager.getText("total_spent"), 
-            langManager.getText("level"), 
-            langManager.getText("discount"), 
-            langManager.getText("to_next_level")
-        };
-        
-        if (memberTable != null) {
-            // Update existing table model
-            tableModel = new DefaultTableModel(columnNames, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
-                }
-            };
-            memberTable.setModel(tableModel);
-        } else {
-            // Initial creation
-            tableModel = new DefaultTableModel(columnNames, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
-                }
-            };
-        }
+    private void applyColumnWidths() {
+        memberTable.getColumnModel().getColumn(0).setPreferredWidth(120); // Phone
+        memberTable.getColumnModel().getColumn(1).setPreferredWidth(150); // Name
+        memberTable.getColumnModel().getColumn(2).setPreferredWidth(100); // Total Spent
+        memberTable.getColumnModel().getColumn(3).setPreferredWidth(80);  // Level
+        memberTable.getColumnModel().getColumn(4).setPreferredWidth(80);  // Discount
+        memberTable.getColumnModel().getColumn(5).setPreferredWidth(150); // Next Level
     }
     
     private void setupListeners() {
         // Table selection listener
         memberTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting() && memberTable.getSelectedRow() != -1) {
-                int selectedRow = memberTable.getSelectedRow();
-                selectedPhone = (String) tableModel.getValueAt(selectedRow, 0);
+                Member selected = tableModel.getMemberAt(memberTable.getSelectedRow());
+                selectedPhone = selected.getPhoneNumber();
                 phoneField.setText(selectedPhone);
-                nameField.setText((String) tableModel.getValueAt(selectedRow, 1));
+                nameField.setText(selected.getName());
                 
                 // Get the actual member to get totalSpent value
                 Member member = membershipController.getMemberByPhone(selectedPhone);
@@ -266,8 +249,31 @@ public class MembershipView extends JPanel {
         // Search field enter key
         searchField.addActionListener(e -> searchMembers());
         
-        // Refresh button
-        refreshButton.addActionListener(e -> loadMembers());
+        // Typeahead: search shortly after the user stops typing
+        searchTimer = new Timer(TYPEAHEAD_DELAY_MILLIS, e -> searchMembers());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        
+        // Refresh button (also picks up members changed at other registers for searching)
+        refreshButton.addActionListener(e -> {
+            membershipController.reloadSearchIndex();
+            loadMembers();
+        });
     }
     
     private void setupLanguageListener() {
@@ -292,8 +298,9 @@ public class MembershipView extends JPanel {
         searchButton.setText(langManager.getText("search"));
         refreshButton.setText(langManager.getText("refresh"));
         
-        // Update table column headers
-        updateTableModel();
+        // Update table column headers (cells are formatted in the new currency when painted)
+        tableModel.fireTableStructureChanged();
+        applyColumnWidths();
         
         // Update total members label
         updateMemberCount();
@@ -302,8 +309,6 @@ public class MembershipView extends JPanel {
         updateInfoLabel();
         updateCurrencyLabel();
         
-        // Refresh the member display to show currency in new format
-        loadMembers();
         repaint();
     }
     
@@ -324,46 +329,19 @@ public class MembershipView extends JPanel {
     }
     
     public void loadMembers() {
-        List<Member> members = membershipController.getAllMembers();
-        displayMembers(members);
+        lastSearchTerm = null;
+        lastSearchResults = null;
+        tableModel.reload();
         updateMemberCount();
     }
     
-    private void displayMembers(List<Member> members) {
-        tableModel.setRowCount(0);
-        
-        for (Member member : members) {
-            // Format total spent with proper rounding
-            String totalSpentDisplay;
-            if (langManager.getCurrentLanguage() == LanguageManager.Language.KOREAN) {
-                double wonAmount = Math.round(member.getTotalSpent() * 1200);
-                totalSpentDisplay = "₩ " + String.format("%,d", (long)wonAmount);
-            } else {
-                totalSpentDisplay = langManager.formatPrice(member.getTotalSpent());
-            }
-            
-            // Format amount to next level with proper rounding
-            String toNextLevelDisplay;
-            if (member.getMembershipLevel() == 1) {
-                toNextLevelDisplay = langManager.getText("max_level");
-            } else {
-                if (langManager.getCurrentLanguage() == LanguageManager.Language.KOREAN) {
-                    double wonAmount = Math.round(member.getAmountToNextLevel() * 1200);
-                    toNextLevelDisplay = "₩ " + String.format("%,d", (long)wonAmount);
-                } else {
-                    toNextLevelDisplay = langManager.formatPrice(member.getAmountToNextLevel());
-                }
-            }
-            
-            Object[] row = {
-                member.getPhoneNumber(),
-                member.getName(),
-                totalSpentDisplay,
-                "Level " + member.getMembershipLevel(),
-                String.format("%.0f%%", member.getDiscountPercent()),
-                toNextLevelDisplay
-            };
-            tableModel.addRow(row);
+    /**
+     * Re-read one member (e.g. after a payment) and update only its row
+     */
+    public void refreshMember(String phoneNumber) {
+        Member member = membershipController.reloadMember(phoneNumber);
+        if (member != null) {
+            tableModel.updateMember(member);
         }
     }
     
@@ -373,9 +351,26 @@ public class MembershipView extends JPanel {
     }
     
     private void searchMembers() {
+        searchTimer.stop();
         String searchTerm = searchField.getText().trim();
-        List<Member> members = membershipController.searchMembers(searchTerm);
-        displayMembers(members);
+        if (searchTerm.equals(lastSearchTerm)) {
+            return;
+        }
+        if (searchTerm.isEmpty()) {
+            loadMembers(); // back to browsing page by page
+            return;
+        }
+        
+        List<Member> members;
+        if (lastSearchTerm != null && !lastSearchTerm.isEmpty() && searchTerm.startsWith(lastSearchTerm)) {
+            // One more character typed: filter what is already shown
+            members = membershipController.refineSearch(lastSearchResults, searchTerm);
+        } else {
+            members = membershipController.searchMembers(searchTerm);
+        }
+        lastSearchTerm = searchTerm;
+        lastSearchResults = members;
+        tableModel.setMembers(members);
     }
     
     private void addMember() {
@@ -0,0 +1,297 @@
+package view;
+
+import model.MenuItem;
+import util.LanguageManager;
+import util.ThumbnailCache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Virtualized two-column grid of menu cards for OrderView
+ * - Only the cards in (or one row around) the visible part of the scroll pane exist;
+ *   cards scrolled out of view are recycled for the items scrolling in
+ * - Memory and the work per scroll / resize / filter depend on the viewport size,
+ *   not on the number of menu items
+ */
+class MenuGridPanel extends JPanel implements Scrollable {
+    static final int IMG_WIDTH = 180;
+    static final int IMG_HEIGHT = 130;
+    static final int CARD_WIDTH = (int) (240 * 1.5);
+    static final int CARD_HEIGHT = 320; // 높이 확보
+
+    private static final int COLUMNS = 2;
+    private static final int GAP = 20;
+    private static final int OVERSCAN_ROWS = 1;
+    private static final int SCROLL_UNIT = 16;
+
+    private List<MenuItem> items = new ArrayList<>();
+    private final Map<Integer, MenuCardCell> activeCells = new HashMap<>(); // item index -> cell
+    private final Deque<MenuCardCell> freeCells = new ArrayDeque<>();
+    private Consumer<MenuItem> menuItemListener;
+    private JViewport viewport;
+
+    MenuGridPanel() {
+        super(null);
+    }
+
+    /**
+     * Show these items (in order); visible cards are rebound, none are rebuilt
+     */
+    void setItems(List<MenuItem> items) {
+        this.items = new ArrayList<>(items);
+        releaseAll();
+        revalidate();
+        layoutCells();
+        repaint();
+    }
+
+    /**
+     * Rebind the visible cards, e.g. after the language or an item's details changed
+     */
+    void refresh() {
+        releaseAll();
+        layoutCells();
+        repaint();
+    }
+
+    void setMenuItemListener(Consumer<MenuItem> listener) {
+        this.menuItemListener = listener;
+    }
+
+    int getCellCount() {
+        return activeCells.size() + freeCells.size();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (getParent() instanceof JViewport && viewport != getParent()) {
+            viewport = (JViewport) getParent();
+            viewport.addChangeListener(e -> layoutCells()); // scrolling and resizing
+        }
+    }
+
+    @Override
+    public void doLayout() {
+        layoutCells();
+    }
+
+    private int rowCount() {
+        return (items.size() + COLUMNS - 1) / COLUMNS;
+    }
+
+    private void releaseAll() {
+        for (MenuCardCell cell : activeCells.values()) {
+            cell.setVisible(false);
+            freeCells.push(cell);
+        }
+        activeCells.clear();
+    }
+
+    // Bind cards to the items in view, recycling the ones that scrolled away
+    private void layoutCells() {
+        Rectangle visible = getVisibleRect();
+        int rowHeight = CARD_HEIGHT + GAP;
+        int firstRow = Math.max(0, visible.y / rowHeight - OVERSCAN_ROWS);
+        int lastRow = Math.min(rowCount() - 1, (visible.y + visible.height) / rowHeight + OVERSCAN_ROWS);
+        int first = firstRow * COLUMNS;
+        int last = Math.min(items.size() - 1, (lastRow + 1) * COLUMNS - 1);
+
+        Iterator<Map.Entry<Integer, MenuCardCell>> it = activeCells.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, MenuCardCell> entry = it.next();
+            if (entry.getKey() < first || entry.getKey() > last) {
+                entry.getValue().setVisible(false);
+                freeCells.push(entry.getValue());
+                it.remove();
+            }
+        }
+
+        for (int i = first; i <= last; i++) {
+            MenuCardCell cell = activeCells.get(i);
+            if (cell == null) {
+                cell = freeCells.poll();
+                if (cell == null) {
+                    cell = new MenuCardCell();
+                    add(cell);
+                }
+                cell.bind(items.get(i));
+                activeCells.put(i, cell);
+            }
+            cell.setBounds((i % COLUMNS) * (CARD_WIDTH + GAP), (i / COLUMNS) * rowHeight, CARD_WIDTH, CARD_HEIGHT);
+            cell.setVisible(true);
+            cell.validate(); // lay out a rebound card now; scrolling does not revalidate the grid
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int rows = rowCount();
+        return new Dimension(COLUMNS * CARD_WIDTH + (COLUMNS - 1) * GAP,
+            rows == 0 ? 0 : rows * CARD_HEIGHT + (rows - 1) * GAP);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return SCROLL_UNIT;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+
+    /**
+     * One recyclable menu card; bind() fills it in for an item
+     */
+    private class MenuCardCell extends JPanel {
+        private final JLabel imgLabel = new JLabel();
+        private final JPanel detailsPanel = new JPanel(new GridBagLayout());
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel categoryLabel = new JLabel();
+        private final JLabel priceLabel = new JLabel();
+        private final JLabel soldOutLabel = new JLabel();
+        private final JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        private final JButton buyButton = new JButton();
+        private final Color nameForeground = nameLabel.getForeground();
+        private MenuItem boundItem;
+
+        MenuCardCell() {
+            super(new BorderLayout(0, 0));
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200), 1),
+                BorderFactory.createEmptyBorder(10, 10, 10, 10)
+            ));
+
+            imgLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            imgLabel.setPreferredSize(new Dimension(IMG_WIDTH, IMG_HEIGHT));
+            add(imgLabel, BorderLayout.NORTH);
+
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.gridwidth = GridBagConstraints.REMAINDER;
+            gbc.anchor = GridBagConstraints.CENTER;
+            gbc.insets = new Insets(2, 0, 2, 0);
+            detailsPanel.add(nameLabel, gbc);
+            detailsPanel.add(categoryLabel, gbc);
+            detailsPanel.add(priceLabel, gbc);
+            gbc.insets = new Insets(5, 0, 0, 0);
+            detailsPanel.add(soldOutLabel, gbc);
+            categoryLabel.setForeground(Color.GRAY);
+            soldOutLabel.setForeground(new Color(220, 53, 69));
+            add(detailsPanel, BorderLayout.CENTER);
+
+            btnPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+            buyButton.setPreferredSize(new Dimension(160, 40));
+            buyButton.setFocusPainted(false);
+            buyButton.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Color.BLACK, 2),
+                BorderFactory.createEmptyBorder(5, 15, 5, 15)
+            ));
+            buyButton.addActionListener(e -> {
+                if (boundItem != null && boundItem.isAvailable() && menuItemListener != null) {
+                    menuItemListener.accept(boundItem);
+                }
+            });
+            btnPanel.add(buyButton);
+            add(btnPanel, BorderLayout.SOUTH);
+        }
+
+        void bind(MenuItem item) {
+            boundItem = item;
+            LanguageManager langManager = LanguageManager.getInstance();
+            String fontName = (langManager.getCurrentLanguage() == LanguageManager.Language.KOREAN) ? "Malgun Gothic" : "Arial";
+            boolean isSoldOut = !item.isAvailable();
+
+            Color background = isSoldOut ? new Color(240, 240, 240) : Color.WHITE;
+            setBackground(background);
+            detailsPanel.setBackground(background);
+            btnPanel.setBackground(background);
+
+            bindImage(item, fontName);
+
+            nameLabel.setText(item.getName());
+            nameLabel.setFont(new Font(fontName, Font.BOLD, 15));
+            nameLabel.setForeground(isSoldOut ? Color.GRAY : nameForeground);
+
+            categoryLabel.setText(langManager.translateCategory(item.getCategory()));
+            categoryLabel.setFont(new Font(fontName, Font.PLAIN, 12));
+
+            priceLabel.setText(langManager.formatPrice(item.getPrice()));
+            priceLabel.setFont(new Font(fontName, Font.BOLD, 14));
+            priceLabel.setForeground(isSoldOut ? Color.GRAY : new Color(0, 128, 0));
+
+            soldOutLabel.setText(langManager.getText("sold_out"));
+            soldOutLabel.setFont(new Font(fontName, Font.BOLD, 13));
+            soldOutLabel.setVisible(isSoldOut);
+
+            buyButton.setText(langManager.getText("buy"));
+            buyButton.setFont(new Font(fontName, Font.BOLD, 16));
+            buyButton.setBackground(isSoldOut ? new Color(230, 230, 230) : Color.WHITE);
+            buyButton.setForeground(isSoldOut ? Color.GRAY : Color.BLACK);
+            buyButton.setEnabled(!isSoldOut);
+            buyButton.setCursor(isSoldOut ? Cursor.getDefaultCursor() : new Cursor(Cursor.HAND_CURSOR));
+            buyButton.putClientProperty("menuItem", isSoldOut ? null : item);
+            buyButton.putClientProperty("action", isSoldOut ? null : "buy");
+        }
+
+        // 이미지는 백그라운드에서 로딩 (캐시에 있으면 바로 표시, 없으면 자리표시 후 채움)
+        private void bindImage(MenuItem item, String fontName) {
+            imgLabel.setIcon(null);
+            imgLabel.setText(null);
+            imgLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+
+            String path = item.getImagePath();
+            if (path == null || path.trim().isEmpty()) {
+                showNoImage(fontName);
+                return;
+            }
+            ThumbnailCache thumbnails = ThumbnailCache.getInstance();
+            ImageIcon cached = thumbnails.getCached(path, IMG_WIDTH, IMG_HEIGHT);
+            if (cached != null) {
+                imgLabel.setIcon(cached);
+                return;
+            }
+            imgLabel.setBorder(BorderFactory.createLineBorder(new Color(235, 235, 235)));
+            thumbnails.load(path, IMG_WIDTH, IMG_HEIGHT, icon -> {
+                if (boundItem != item) return; // card was recycled for another item meanwhile
+                if (icon != null) {
+                    imgLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
+                    imgLabel.setIcon(icon);
+                } else {
+                    showNoImage(fontName);
+                }
+            });
+        }
+
+        private void showNoImage(String fontName) {
+            imgLabel.setText("No Image");
+            imgLabel.setFont(new Font(fontName, Font.PLAIN, 12));
+            imgLabel.setForeground(Color.LIGHT_GRAY);
+            imgLabel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        }
+    }
+}
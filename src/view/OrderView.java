@@ -4,17 +4,15 @@ import model.MenuItem;
 import model.OrderItem;
 import util.LanguageManager;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class OrderView extends JPanel {
-    private JPanel menuPanel;
+    private MenuGridPanel menuPanel;
     private JTable orderTable;
     private DefaultTableModel tableModel;
     private JLabel subtotalLabel, discountLabel, totalLabel;
@@ -26,11 +24,6 @@ public class OrderView extends JPanel {
     private TitledBorder leftPanelBorder, rightPanelBorder;
     private JLabel categoryLabel, discountPercentLabel, subtotalTextLabel, discountTextLabel, totalTextLabel;
 
-    private static final int IMG_WIDTH = 180;
-    private static final int IMG_HEIGHT = 130;
-    private static final int CARD_WIDTH = (int) (240 * 1.5);
-    private static final int CARD_HEIGHT = 320; // 높이 확보
-
     public OrderView() {
         langManager = LanguageManager.getInstance();
         setLayout(new BorderLayout(10, 10));
@@ -54,8 +47,7 @@ public class OrderView extends JPanel {
         filterPanel.add(categoryFilter);
         leftPanel.add(filterPanel, BorderLayout.NORTH);
 
-        menuPanel = new JPanel();
-        menuPanel.setLayout(new GridLayout(0, 2, 20, 20));
+        menuPanel = new MenuGridPanel(); // 화면에 보이는 카드만 생성해서 재사용
         JScrollPane menuScroll = new JScrollPane(menuPanel);
         menuScroll.getVerticalScrollBar().setUnitIncrement(16);
         leftPanel.add(menuScroll, BorderLayout.CENTER);
@@ -148,147 +140,24 @@ public class OrderView extends JPanel {
         
         clearButton.setFont(btnFont); payButton.setFont(btnFont);
         
-        // 동적으로 생성된 카드들도 업데이트 필요
-        updateMenuCardsFont(fontName);
+        // 화면에 보이는 카드들도 다시 그림 (폰트/언어 반영)
+        menuPanel.refresh();
         repaint();
     }
     
-    // 메뉴 카드 내부 폰트 업데이트 헬퍼
-    private void updateMenuCardsFont(String fontName) {
-        Component[] cards = menuPanel.getComponents();
-        for (Component card : cards) {
-            if (card instanceof JPanel) {
-                updateComponentTreeFont((JPanel)card, fontName);
-            }
-        }
-    }
-    
-    private void updateComponentTreeFont(Container container, String fontName) {
-        for (Component c : container.getComponents()) {
-            if (c instanceof JLabel) {
-                Font f = c.getFont();
-                c.setFont(new Font(fontName, f.getStyle(), f.getSize()));
-            } else if (c instanceof JButton) {
-                Font f = c.getFont();
-                c.setFont(new Font(fontName, f.getStyle(), f.getSize()));
-            } else if (c instanceof Container) {
-                updateComponentTreeFont((Container)c, fontName);
-            }
-        }
-    }
-
+    /**
+     * Show exactly these items (e.g. one category from MenuManager); only the visible
+     * cards are rebound
+     */
     public void displayMenuItems(List<MenuItem> menuItems) {
-        menuPanel.removeAll();
-        for (MenuItem item : menuItems) {
-            menuPanel.add(createMenuCard(item));
-        }
-        menuPanel.revalidate();
-        menuPanel.repaint();
+        menuPanel.setItems(menuItems);
     }
 
-    private JPanel createMenuCard(MenuItem item) {
-        JPanel card = new JPanel(new BorderLayout(0, 0));
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200), 1),
-            BorderFactory.createEmptyBorder(10, 10, 10, 10)
-        ));
-        card.setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
-
-        boolean isSoldOut = !item.isAvailable();
-        card.setBackground(isSoldOut ? new Color(240, 240, 240) : Color.WHITE);
-        String fontName = (langManager.getCurrentLanguage() == LanguageManager.Language.KOREAN) ? "Malgun Gothic" : "Arial";
-
-        // Image
-        JLabel imgLabel = new JLabel();
-        imgLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        imgLabel.setPreferredSize(new Dimension(IMG_WIDTH, IMG_HEIGHT));
-        imgLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
-        
-        String path = item.getImagePath();
-        boolean imgLoaded = false;
-        
-        if (path != null && !path.trim().isEmpty()) {
-            File imgFile = new File(path);
-            if (imgFile.exists()) {
-                try {
-                    BufferedImage img = ImageIO.read(imgFile);
-                    if (img != null) {
-                        Image scaled = img.getScaledInstance(IMG_WIDTH, IMG_HEIGHT, Image.SCALE_SMOOTH);
-                        imgLabel.setIcon(new ImageIcon(scaled));
-                        imgLoaded = true;
-                    }
-                } catch (Exception e) {}
-            }
-        }
-        
-        if (!imgLoaded) {
-            imgLabel.setText("No Image");
-            imgLabel.setFont(new Font(fontName, Font.PLAIN, 12));
-            imgLabel.setForeground(Color.LIGHT_GRAY);
-            imgLabel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-        }
-        card.add(imgLabel, BorderLayout.NORTH);
-
-        // Text Info (GridBagLayout)
-        JPanel detailsPanel = new JPanel(new GridBagLayout());
-        detailsPanel.setBackground(card.getBackground());
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.gridwidth = GridBagConstraints.REMAINDER;
-        gbc.anchor = GridBagConstraints.CENTER;
-        gbc.insets = new Insets(2, 0, 2, 0);
-
-        JLabel nameLabel = new JLabel(item.getName());
-        nameLabel.setFont(new Font(fontName, Font.BOLD, 15));
-        if (isSoldOut) nameLabel.setForeground(Color.GRAY);
-        detailsPanel.add(nameLabel, gbc);
-
-        JLabel categoryLabel = new JLabel(langManager.translateCategory(item.getCategory()));
-        categoryLabel.setFont(new Font(fontName, Font.PLAIN, 12));
-        categoryLabel.setForeground(Color.GRAY);
-        detailsPanel.add(categoryLabel, gbc);
-
-        JLabel priceLabel = new JLabel(langManager.formatPrice(item.getPrice()));
-        priceLabel.setFont(new Font(fontName, Font.BOLD, 14));
-        priceLabel.setForeground(isSoldOut ? Color.GRAY : new Color(0, 128, 0));
-        detailsPanel.add(priceLabel, gbc);
-
-        if (isSoldOut) {
-            JLabel soldOutLabel = new JLabel(langManager.getText("sold_out"));
-            soldOutLabel.setFont(new Font(fontName, Font.BOLD, 13));
-            soldOutLabel.setForeground(new Color(220, 53, 69));
-            gbc.insets = new Insets(5, 0, 0, 0);
-            detailsPanel.add(soldOutLabel, gbc);
-        }
-        card.add(detailsPanel, BorderLayout.CENTER);
-
-        // Button
-        JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        btnPanel.setBackground(card.getBackground());
-        btnPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
-        
-        JButton buyButton = new JButton(langManager.getText("buy"));
-        buyButton.setFont(new Font(fontName, Font.BOLD, 16));
-        buyButton.setPreferredSize(new Dimension(160, 40));
-        buyButton.setBackground(isSoldOut ? new Color(230, 230, 230) : Color.WHITE);
-        buyButton.setForeground(isSoldOut ? Color.GRAY : Color.BLACK);
-        buyButton.setFocusPainted(false);
-        buyButton.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(Color.BLACK, 2),
-            BorderFactory.createEmptyBorder(5, 15, 5, 15)
-        ));
-        
-        if (!isSoldOut) {
-            buyButton.putClientProperty("menuItem", item);
-            buyButton.putClientProperty("action", "buy");
-            buyButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        } else {
-            buyButton.setEnabled(false);
-        }
-        
-        btnPanel.add(buyButton);
-        card.add(btnPanel, BorderLayout.SOUTH);
-
-        return card;
+    /**
+     * Called with the item whenever a card's buy button is clicked
+     */
+    public void setMenuItemListener(Consumer<MenuItem> listener) {
+        menuPanel.setMenuItemListener(listener);
     }
 
     private void updateCategoryFilter() {
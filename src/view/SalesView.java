@@ -18,9 +18,10 @@ public class SalesView extends JPanel {
     private JLabel monthlyRevenueTextLabel, todaySalesTextLabel, todayOrdersTextLabel;
     private JComboBox<Integer> yearCombo, monthCombo, dayCombo;
     private JTextField amountField;
-    private JButton searchButton, printReceiptButton, cancelOrderButton, exportCSVButton;
+    private JButton searchButton, printReceiptButton, cancelOrderButton, exportCSVButton, cancelExportButton, importCSVButton;
     private boolean isUpdatingSelection = false;
     private JLabel yearLabel, monthLabel, dayLabel, priceLabel;
+    private JLabel statusLabel;
     
     public SalesView() {
         langManager = LanguageManager.getInstance();
@@ -87,7 +88,12 @@ public class SalesView extends JPanel {
         cancelOrderButton.setEnabled(false); cancelOrderButton.setBackground(Color.LIGHT_GRAY); cancelOrderButton.setForeground(Color.DARK_GRAY);
         exportCSVButton = new JButton(langManager.getText("btn_export_csv")); exportCSVButton.setBackground(new Color(40, 167, 69)); exportCSVButton.setForeground(Color.BLACK);
         
-        bottomPanel.add(printReceiptButton); bottomPanel.add(cancelOrderButton); bottomPanel.add(exportCSVButton);
+        cancelExportButton = new JButton(langManager.getText("btn_cancel_export")); cancelExportButton.setVisible(false);
+        importCSVButton = new JButton(langManager.getText("btn_import_csv"));
+        
+        bottomPanel.add(printReceiptButton); bottomPanel.add(cancelOrderButton); bottomPanel.add(exportCSVButton); bottomPanel.add(cancelExportButton); bottomPanel.add(importCSVButton);
+        statusLabel = new JLabel(" "); statusLabel.setForeground(Color.DARK_GRAY);
+        bottomPanel.add(statusLabel);
         
         add(statsPanel, BorderLayout.NORTH); add(centerPanel, BorderLayout.CENTER); add(bottomPanel, BorderLayout.SOUTH);
         setupSelectionListeners();
@@ -119,6 +125,9 @@ public class SalesView extends JPanel {
         printReceiptButton.setFont(btnFont); 
         cancelOrderButton.setFont(btnFont); 
         exportCSVButton.setFont(btnFont);
+        cancelExportButton.setFont(btnFont);
+        importCSVButton.setFont(btnFont);
+        statusLabel.setFont(plainFont);
         
         this.repaint();
     }
@@ -163,6 +172,10 @@ public class SalesView extends JPanel {
         todayOrdersLabel.setText(String.valueOf(todayOrders));
         this.repaint();
     }
+    // 백그라운드 작업 진행 상황 표시 (매출 기록 로딩 등)
+    public void setStatusText(String text) { statusLabel.setText(text == null || text.isEmpty() ? " " : text); }
+    // CSV 내보내기 진행 중에만 취소 버튼 표시
+    public void setExportRunning(boolean running) { cancelExportButton.setVisible(running); revalidate(); }
     public void updateSalesTable(java.util.List<String[]> salesData) { tableModel.setRowCount(0); for (String[] row : salesData) tableModel.addRow(row); }
     public void updateCancelledTable(java.util.List<String[]> cancelledData) { cancelledTableModel.setRowCount(0); for (String[] row : cancelledData) cancelledTableModel.addRow(row); }
     public void updateSearchTable(java.util.List<String[]> searchData) { searchTableModel.setRowCount(0); for (String[] row : searchData) searchTableModel.addRow(row); }
@@ -183,11 +196,14 @@ public class SalesView extends JPanel {
         printReceiptButton.setText(langManager.getText("btn_print_receipt"));
         cancelOrderButton.setText(langManager.getText("btn_cancel_order"));
         exportCSVButton.setText(langManager.getText("btn_export_csv"));
+        cancelExportButton.setText(langManager.getText("btn_cancel_export"));
+        importCSVButton.setText(langManager.getText("btn_import_csv"));
         updateSalesTableModel(); updateSearchTableModel(); updateCancelledTableModel();
         repaint(); revalidate();
     }
     public JButton getExportCSVButton() { return exportCSVButton; } public JButton getSearchButton() { return searchButton; }
     public JButton getPrintReceiptButton() { return printReceiptButton; } public JButton getCancelOrderButton() { return cancelOrderButton; }
+    public JButton getCancelExportButton() { return cancelExportButton; } public JButton getImportCSVButton() { return importCSVButton; }
     public int getSelectedYear() { return (Integer) yearCombo.getSelectedItem(); } public int getSelectedMonth() { return (Integer) monthCombo.getSelectedItem(); }
     public int getSelectedDay() { return (Integer) dayCombo.getSelectedItem(); } public String getSearchAmount() { return amountField.getText(); }
     public String getSelectedOrderId() {